@@ -0,0 +1,71 @@
+package com.agricultecommerce.benchmark;
+
+import com.agricultecommerce.dto.CartItemDto;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.repository.UserRepository;
+import com.agricultecommerce.service.CartService;
+import com.agricultecommerce.service.InventoryLedger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code CartService.addItemToCart}. Shoppers and products are rotated, so each cart holds
+ * at most one line per catalog product; stock is raised so quantities never run out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CartBenchmark {
+
+    private static final int SHOPPERS = 500;
+
+    private CartService cartService;
+    private final List<User> shoppers = new ArrayList<>();
+    private List<Long> productIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        cartService = app.bean(CartService.class);
+        app.bean(JdbcTemplate.class).update("UPDATE products SET stock = 100000000");
+        app.bean(InventoryLedger.class).loadOnStartup();
+
+        UserRepository users = app.bean(UserRepository.class);
+        for (int i = 0; i < SHOPPERS; i++) {
+            String name = "bench-cart-" + i;
+            shoppers.add(users.save(new User(null, name, name + "@example.com", "x", User.Role.USER)));
+        }
+        productIds = app.bean(ProductRepository.class).findAll().stream().map(Product::getId).toList();
+    }
+
+    @Benchmark
+    public CartItemDto addItemToCart() {
+        User shopper = shopper();
+        CartItemDto item = cartService.addItemToCart(shopper.getId(), productIds.get(next % productIds.size()), 1);
+        next++;
+        return item;
+    }
+
+    private User shopper() {
+        return shoppers.get(next % SHOPPERS);
+    }
+}
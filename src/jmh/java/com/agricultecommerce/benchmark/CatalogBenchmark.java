@@ -0,0 +1,73 @@
+package com.agricultecommerce.benchmark;
+
+import com.agricultecommerce.dto.ProductCardDto;
+import com.agricultecommerce.entity.Category;
+import com.agricultecommerce.repository.CategoryRepository;
+import com.agricultecommerce.service.ProductService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ProductService.getProducts} across the listing shapes the storefront issues:
+ * the plain first page, a category filter, a price sort, a full-text search and a misspelt
+ * fuzzy search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CatalogBenchmark {
+
+    @Param({"all", "category", "sorted", "search", "searchSorted", "fuzzySearch"})
+    public String variant;
+
+    private ProductService productService;
+    private Long categoryId;
+    private String search;
+    private String sortBy;
+    private boolean fuzzy;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        productService = app.bean(ProductService.class);
+        Long firstCategory = app.bean(CategoryRepository.class).findAll().stream()
+                .map(Category::getId)
+                .findFirst()
+                .orElseThrow();
+        switch (variant) {
+            case "category" -> categoryId = firstCategory;
+            case "sorted" -> sortBy = "price,desc";
+            case "search" -> search = "pump";
+            case "searchSorted" -> {
+                search = "tractor";
+                sortBy = "price,asc";
+            }
+            case "fuzzySearch" -> {
+                search = "submersable pump";
+                fuzzy = true;
+            }
+            default -> {
+            }
+        }
+    }
+
+    @Benchmark
+    public Page<ProductCardDto> getProducts() {
+        return productService.getProducts(0, 12, categoryId, search, fuzzy, sortBy);
+    }
+}
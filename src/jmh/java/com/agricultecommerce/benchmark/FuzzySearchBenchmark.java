@@ -0,0 +1,67 @@
+package com.agricultecommerce.benchmark;
+
+import com.agricultecommerce.entity.Category;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.service.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy {@code ProductSearchIndex.search} over a synthetic catalog of 100k SKUs, filtered to
+ * one category: a substitution, a misspelt term next to an exact one, a transposition and a
+ * typo-free query for comparison. Runs without the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class FuzzySearchBenchmark {
+
+    @Param({"rotavater", "cultivater 7", "sparyer", "thresher"})
+    public String query;
+
+    private ProductSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] words = {"heavy", "compact", "organic", "hybrid", "solar", "sprayer", "seeder", "tiller", "harrow",
+                "fertilizer", "rotavator", "cultivator", "thresher", "weeder", "mulcher", "baler"};
+        Random random = new Random(7);
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            Product product = new Product(id, words[random.nextInt(words.length)] + " "
+                    + words[random.nextInt(words.length)] + " "
+                    + Long.toString(random.nextInt(1_000_000), 36), null, BigDecimal.valueOf(1000), 10);
+            product.setBrand("Brand" + random.nextInt(2000));
+            long categoryId = 1L + random.nextInt(50);
+            product.setCategory(new Category(categoryId, "Category " + categoryId, null));
+            catalog.add(product);
+        }
+        index = new ProductSearchIndex();
+        index.rebuild(catalog);
+    }
+
+    @Benchmark
+    public List<Long> fuzzySearch() {
+        return index.search(query, 3L, Sort.unsorted(), true);
+    }
+}
@@ -0,0 +1,67 @@
+package com.agricultecommerce.benchmark;
+
+import com.agricultecommerce.dto.ProductSuggestion;
+import com.agricultecommerce.entity.Category;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.service.ProductSuggester;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code ProductSuggester.suggest} over a synthetic catalog of 100k SKUs, for a short
+ * prefix that matches most of it, a longer word prefix and a two-word prefix. Runs without
+ * the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SuggestBenchmark {
+
+    @Param({"p", "sola", "heavy se"})
+    public String prefix;
+
+    private ProductSuggester suggester;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String[] adjectives = {"Heavy", "Compact", "Organic", "Hybrid", "Solar", "Electric", "Manual", "Premium"};
+        String[] nouns = {"Pump", "Sprayer", "Seeder", "Tiller", "Harrow", "Fertilizer", "Seeds", "Hose", "Filter", "Blade"};
+        Random random = new Random(42);
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            Product product = new Product(id, adjectives[random.nextInt(adjectives.length)] + " "
+                    + nouns[random.nextInt(nouns.length)] + " "
+                    + Long.toString(random.nextInt(1_000_000), 36).toUpperCase(), null, BigDecimal.TEN, 1);
+            product.setBrand("Brand" + random.nextInt(2000));
+            long categoryId = 1L + random.nextInt(50);
+            product.setCategory(new Category(categoryId, "Category " + categoryId, null));
+            catalog.add(product);
+        }
+        suggester = new ProductSuggester();
+        suggester.rebuild(catalog);
+    }
+
+    @Benchmark
+    public List<ProductSuggestion> suggest() {
+        return suggester.suggest(prefix, 8);
+    }
+}
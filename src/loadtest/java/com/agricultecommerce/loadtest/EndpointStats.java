@@ -0,0 +1,64 @@
+package com.agricultecommerce.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds, up to one minute, three significant digits) and error
+ * count for one endpoint.
+ */
+class EndpointStats {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String endpoint;
+    private final Histogram latency = new ConcurrentHistogram(MAX_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    void record(long nanos, boolean ok) {
+        latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), MAX_MICROS));
+        if (!ok) {
+            errors.increment();
+        }
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    long count() {
+        return latency.getTotalCount();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    double percentileMillis(double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    Map<String, Object> toReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("endpoint", endpoint);
+        report.put("count", count());
+        report.put("errors", errors());
+        report.put("errorRate", count() == 0 ? 0.0 : (double) errors() / count());
+        report.put("meanMs", latency.getMean() / 1000.0);
+        report.put("p50Ms", percentileMillis(50));
+        report.put("p90Ms", percentileMillis(90));
+        report.put("p99Ms", percentileMillis(99));
+        report.put("p999Ms", percentileMillis(99.9));
+        report.put("maxMs", latency.getMaxValue() / 1000.0);
+        return report;
+    }
+}
@@ -0,0 +1,118 @@
+package com.agricultecommerce.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * One virtual shopper following the storefront flow in {@code app.js}: register and log in,
+ * list categories, page through the catalog by cursor, add an in-stock product to the cart,
+ * view the cart, check out and open the order history.
+ */
+class ShopperSession implements Runnable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String username;
+    private final int pages;
+    private final Function<String, EndpointStats> stats;
+    private String token;
+
+    ShopperSession(HttpClient client, String baseUrl, String username, int pages, Function<String, EndpointStats> stats) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.pages = pages;
+        this.stats = stats;
+    }
+
+    @Override
+    public void run() {
+        String credentials = "{\"username\":\"" + username + "\",\"password\":\"secret123\"}";
+        String registration = "{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"secret123\"}";
+        if (call("POST", "/api/auth/register", "POST /api/auth/register", registration) == null) {
+            return;
+        }
+        JsonNode login = call("POST", "/api/auth/login", "POST /api/auth/login", credentials);
+        if (login == null || !login.hasNonNull("token")) {
+            return;
+        }
+        token = login.get("token").asText();
+
+        call("GET", "/api/categories", "GET /api/categories", null);
+
+        List<JsonNode> inStock = new ArrayList<>();
+        String after = "";
+        for (int page = 0; page < pages && after != null; page++) {
+            JsonNode body = call("GET", "/api/products?size=12&after=" + URLEncoder.encode(after, StandardCharsets.UTF_8),
+                    "GET /api/products", null);
+            if (body == null) {
+                return;
+            }
+            body.get("content").forEach(product -> {
+                if (product.path("stock").asInt() > 0) {
+                    inStock.add(product);
+                }
+            });
+            after = body.hasNonNull("nextCursor") ? body.get("nextCursor").asText() : null;
+        }
+        if (inStock.isEmpty()) {
+            return;
+        }
+
+        JsonNode product = inStock.get(ThreadLocalRandom.current().nextInt(inStock.size()));
+        if (call("POST", "/api/cart/add?productId=" + product.get("id").asLong() + "&quantity=1", "POST /api/cart/add", null) == null) {
+            return;
+        }
+        call("GET", "/api/cart", "GET /api/cart", null);
+        call("POST", "/api/orders", "POST /api/orders", "{\"shippingAddress\":\"Plot 7, Village Road\"}");
+        call("GET", "/api/orders?size=10", "GET /api/orders", null);
+    }
+
+    /**
+     * Sends one request and records its latency under the endpoint key.
+     * Returns the parsed body, or {@code null} for a failed request.
+     */
+    private JsonNode call(String method, String path, String key, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT);
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (body != null) {
+            request.header("Content-Type", "application/json");
+        }
+        request.method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body));
+
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() / 100 == 2;
+            stats.apply(key).record(System.nanoTime() - start, ok);
+            if (!ok) {
+                return null;
+            }
+            return response.body().isEmpty() ? JSON.valueToTree(Map.of()) : JSON.readTree(response.body());
+        } catch (Exception e) {
+            stats.apply(key).record(System.nanoTime() - start, false);
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.agricultecommerce.loadtest;
+
+import com.agricultecommerce.AgricultecommerceApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open-model load generator for the storefront API. New shopper sessions start at a fixed
+ * arrival rate regardless of how long earlier sessions take, so a slow server shows up as
+ * rising latency and errors rather than as fewer requests.
+ *
+ * <p>Arguments are {@code key=value} pairs:
+ * <ul>
+ *   <li>{@code baseUrl} - app to drive; when omitted an instance is started in-process on a
+ *       random port with its own in-memory database</li>
+ *   <li>{@code threads} - request thread model of the in-process app, {@code platform}
+ *       (default) or {@code virtual} (Java 21+)</li>
+ *   <li>{@code rate} - new sessions per second (default 10)</li>
+ *   <li>{@code duration} - seconds to keep starting sessions (default 30)</li>
+ *   <li>{@code pages} - catalog pages each shopper scrolls through (default 3)</li>
+ *   <li>{@code report} - JSON report path (default {@code target/loadtest-report.json})</li>
+ *   <li>{@code baseline} - earlier report to print throughput and p99 changes against</li>
+ * </ul>
+ */
+public final class StorefrontLoadTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private StorefrontLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        double rate = Double.parseDouble(options.getOrDefault("rate", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int pages = Integer.parseInt(options.getOrDefault("pages", "3"));
+        File report = new File(options.getOrDefault("report", "target/loadtest-report.json"));
+
+        ConfigurableApplicationContext app = null;
+        String baseUrl = options.get("baseUrl");
+        String threads = options.getOrDefault("threads", "platform");
+        if (baseUrl == null) {
+            app = startApplication(threads);
+            baseUrl = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            Map<String, Object> result = run(baseUrl, rate, duration, pages);
+            if (app != null) {
+                result.put("threads", threads);
+            }
+            report.getAbsoluteFile().getParentFile().mkdirs();
+            JSON.writeValue(report, result);
+            print(result, options.containsKey("baseline") ? JSON.readTree(new File(options.get("baseline"))) : null);
+            System.out.println("Report written to " + report.getPath());
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    static Map<String, Object> run(String baseUrl, double rate, int durationSeconds, int pages) throws InterruptedException {
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        AtomicInteger started = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        ExecutorService shoppers = Executors.newCachedThreadPool();
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        Instant start = Instant.now();
+        arrivals.scheduleAtFixedRate(() -> {
+            String username = "load-" + runId + "-" + started.incrementAndGet();
+            shoppers.execute(() -> {
+                new ShopperSession(client, baseUrl, username, pages,
+                        endpoint -> stats.computeIfAbsent(endpoint, EndpointStats::new)).run();
+                completed.incrementAndGet();
+            });
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(durationSeconds));
+        arrivals.shutdownNow();
+        shoppers.shutdown();
+        shoppers.awaitTermination(2, TimeUnit.MINUTES);
+        double elapsed = Duration.between(start, Instant.now()).toMillis() / 1000.0;
+
+        List<EndpointStats> endpoints = new ArrayList<>(stats.values());
+        endpoints.sort((a, b) -> a.endpoint().compareTo(b.endpoint()));
+        long requests = endpoints.stream().mapToLong(EndpointStats::count).sum();
+        long errors = endpoints.stream().mapToLong(EndpointStats::errors).sum();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("startedAt", start.toString());
+        result.put("baseUrl", baseUrl);
+        result.put("arrivalRatePerSecond", rate);
+        result.put("durationSeconds", durationSeconds);
+        result.put("pagesPerSession", pages);
+        result.put("sessionsStarted", started.get());
+        result.put("sessionsCompleted", completed.get());
+        result.put("requests", requests);
+        result.put("errors", errors);
+        result.put("errorRate", requests == 0 ? 0.0 : (double) errors / requests);
+        result.put("throughputPerSecond", requests / elapsed);
+        result.put("endpoints", endpoints.stream().map(EndpointStats::toReport).toList());
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> result, JsonNode baseline) {
+        Map<String, Double> baselineP99 = new HashMap<>();
+        if (baseline != null) {
+            baseline.path("endpoints").forEach(e -> baselineP99.put(e.get("endpoint").asText(), e.get("p99Ms").asDouble()));
+        }
+        System.out.printf("%n%d sessions, %d requests, %.2f%% errors, %.1f req/s%s%n%n", result.get("sessionsStarted"),
+                result.get("requests"), 100 * (double) result.get("errorRate"), result.get("throughputPerSecond"),
+                baseline == null ? "" : String.format(" (baseline %.1f req/s)", baseline.path("throughputPerSecond").asDouble()));
+        System.out.printf("%-26s %8s %7s %9s %9s %9s %9s %9s%s%n", "endpoint", "count", "err%", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms", baseline == null ? "" : "  p99 vs baseline");
+        for (Map<String, Object> e : (List<Map<String, Object>>) result.get("endpoints")) {
+            String delta = "";
+            Double before = baselineP99.get((String) e.get("endpoint"));
+            if (before != null && before > 0) {
+                delta = String.format("  %+.1f%%", 100 * ((double) e.get("p99Ms") - before) / before);
+            }
+            System.out.printf("%-26s %8d %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f%s%n", e.get("endpoint"), e.get("count"),
+                    100 * (double) e.get("errorRate"), e.get("p50Ms"), e.get("p90Ms"), e.get("p99Ms"), e.get("p999Ms"),
+                    e.get("maxMs"), delta);
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(String threads) {
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("threads must be platform or virtual but was: " + threads);
+        }
+        if (threads.equals("virtual") && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("threads=virtual needs Java 21 or later, running on " + Runtime.version());
+        }
+        return new SpringApplicationBuilder(AgricultecommerceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                        "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,56 @@
+package com.agricultecommerce.config;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Moves the pooled id sequences of {@code orders} and {@code order_items} past the ids already
+ * stored. Both tables took IDENTITY ids before; on an existing database Hibernate's schema
+ * update creates their sequences starting at 1, which would hand out ids of existing rows.
+ * Runs before anything is inserted: the JdbcTemplate only exists once the schema is in place.
+ */
+@Component
+public class IdSequenceInitializer {
+
+    // allocationSize of the @SequenceGenerator mappings: a pooled sequence value is the
+    // highest id of the block Hibernate takes from it
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = Map.of(
+        "orders_seq", "orders",
+        "order_items_seq", "order_items"
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void seedSequences() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        SEQUENCES.forEach((sequence, table) -> {
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            if (maxId == 0) {
+                return;
+            }
+            // The first block then starts right after the highest stored id
+            long next = maxId + ALLOCATION_SIZE;
+            if ("MySQL".equals(database)) {
+                // MySQL has no sequences; Hibernate keeps the next value in a one-row table instead
+                jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", next, next);
+                return;
+            }
+            Long current = jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES " +
+                    "WHERE SEQUENCE_NAME = ?", Long.class, sequence.toUpperCase(Locale.ROOT));
+            if (current < next) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+            }
+        });
+    }
+}
@@ -0,0 +1,25 @@
+package com.agricultecommerce.config;
+
+import com.agricultecommerce.service.ProductImageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ImageConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // File names are content hashes, so a stored image never changes and can be cached for good
+        registry.addResourceHandler(ProductImageService.URL_PREFIX + "**")
+                .addResourceLocations(productImageService.getDirectory().toUri().toString())
+                .setCacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable());
+    }
+}
@@ -1,11 +1,18 @@
 package com.agricultecommerce.config;
 
+import com.agricultecommerce.service.LatencyTimer;
+import com.agricultecommerce.service.MetricsRegistry;
 import com.agricultecommerce.service.UserService;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -24,33 +31,55 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private LatencyTimer authenticateTimer;
+
+    // Only API requests carry a token; static resources are never filtered
+    private static final RequestMatcher API_ROUTES = new AntPathRequestMatcher("/api/**");
+
+    // Public API routes that never consult the principal. Product and category writes stay filtered
+    // because they share the /api/products path but are guarded by @PreAuthorize.
+    private static final RequestMatcher PUBLIC_ROUTES = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/auth/**"),
+            new AntPathRequestMatcher("/api/products/**", "GET"),
+            new AntPathRequestMatcher("/api/categories/**", "GET"));
+
+    @PostConstruct
+    void initTimer() {
+        authenticateTimer = metricsRegistry.timer(MetricsRegistry.Family.JWT_FILTER, "authenticate");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !API_ROUTES.matches(request) || PUBLIC_ROUTES.matches(request);
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
+        long start = System.nanoTime();
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-
+        Claims claims = null;
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwtToken);
-            } catch (Exception e) {
+            claims = jwtUtil.getValidClaims(requestTokenHeader.substring(7));
+            if (claims == null) {
                 logger.warn("Unable to get JWT Token");
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwtToken, userDetails.getUsername())) {
-                UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
-            }
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = this.userService.loadUserByUsername(claims.getSubject());
+            UsernamePasswordAuthenticationToken usernamePasswordAuthenticationToken =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            usernamePasswordAuthenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(usernamePasswordAuthenticationToken);
         }
+        // Only the filter's own work is timed; an invalid token counts as an error
+        authenticateTimer.record(System.nanoTime() - start, requestTokenHeader != null && claims == null);
         chain.doFilter(request, response);
     }
 }
@@ -1,9 +1,13 @@
 package com.agricultecommerce.config;
 
+import com.agricultecommerce.service.LruCache;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -20,8 +24,21 @@ public class JwtUtil {
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    @Value("${jwt.cache.max-entries:10000}")
+    private int maxCachedTokens;
+
+    private Key signingKey;
+
+    private JwtParser parser;
+
+    // Verified token -> claims, kept until the token expires so each token's signature is checked once
+    private LruCache<String, Claims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = new LruCache<String, Claims>("verifiedTokens", maxCachedTokens).expireAt(JwtUtil::expiresAt);
     }
 
     public String generateToken(String username) {
@@ -29,10 +46,18 @@ public class JwtUtil {
                 .setSubject(username)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
+    /**
+     * Returns the claims of a correctly signed, unexpired token, or {@code null} when the token
+     * is invalid. Verified tokens are cached, so repeat requests skip signature verification.
+     */
+    public Claims getValidClaims(String token) {
+        return verifiedTokens.get(token, this::verify);
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -42,12 +67,25 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        Claims claims = getValidClaims(token);
+        if (claims == null) {
+            claims = extractAllClaims(token);
+        }
         return claimsResolver.apply(claims);
     }
 
+    private Claims verify(String token) {
+        Claims claims;
+        try {
+            claims = extractAllClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        return expiresAt(claims) > System.currentTimeMillis() ? claims : null;
+    }
+
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public Boolean isTokenExpired(String token) {
@@ -55,7 +93,16 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        Claims claims = getValidClaims(token);
+        return claims != null && claims.getSubject().equals(username);
+    }
+
+    int cachedTokenCount() {
+        return verifiedTokens.size();
+    }
+
+    private static long expiresAt(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp == null ? Long.MAX_VALUE : exp.getTime();
     }
 }
@@ -0,0 +1,64 @@
+package com.agricultecommerce.config;
+
+import com.agricultecommerce.service.LatencyTimer;
+import com.agricultecommerce.service.MetricsRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call made through a Spring Data repository, named after the application's
+ * repository interface and method (for example {@code ProductRepository.findById}).
+ */
+@Aspect
+@Component
+public class RepositoryMetricsAspect {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    // Timers per repository proxy class and method, so the hot path does no string building
+    private final ClassValue<Map<Method, LatencyTimer>> timers = new ClassValue<>() {
+        @Override
+        protected Map<Method, LatencyTimer> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Class<?> proxyClass = joinPoint.getThis().getClass();
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        LatencyTimer timer = timers.get(proxyClass).get(method);
+        if (timer == null) {
+            timer = timers.get(proxyClass).computeIfAbsent(method, m -> metricsRegistry.timer(
+                    MetricsRegistry.Family.REPOSITORY, repositoryName(proxyClass) + "." + m.getName()));
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            timer.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private static String repositoryName(Class<?> proxyClass) {
+        for (Class<?> type : proxyClass.getInterfaces()) {
+            if (Repository.class.isAssignableFrom(type) && type.getPackageName().startsWith("com.agricultecommerce")) {
+                return type.getSimpleName();
+            }
+        }
+        return proxyClass.getSimpleName();
+    }
+}
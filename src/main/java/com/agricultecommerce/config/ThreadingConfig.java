@@ -0,0 +1,41 @@
+package com.agricultecommerce.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Reports which thread model serves requests. {@code spring.threads.virtual.enabled=true}
+ * switches Tomcat, {@code @Scheduled} work and async execution to virtual threads, but only
+ * on Java 21 or later; on older runtimes Spring Boot silently keeps the platform pool.
+ */
+@Configuration
+public class ThreadingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingConfig.class);
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int maxPlatformThreads;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int connectionPoolSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreadingMode() {
+        int javaVersion = Runtime.version().feature();
+        if (virtualThreads && javaVersion < 21) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; serving requests on up to {} platform threads",
+                    javaVersion, maxPlatformThreads);
+        } else if (virtualThreads) {
+            log.info("Serving requests on virtual threads; database concurrency is bounded by {} pooled connections", connectionPoolSize);
+        } else {
+            log.info("Serving requests on up to {} platform threads with {} pooled connections", maxPlatformThreads, connectionPoolSize);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.agricultecommerce.controller;
+
+import com.agricultecommerce.service.CategoryService;
+import com.agricultecommerce.service.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCacheController {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @GetMapping("/stats")
+    public List<Map<String, Object>> getCacheStats() {
+        List<Map<String, Object>> stats = new ArrayList<>(productService.cacheStats());
+        stats.addAll(categoryService.cacheStats());
+        return stats;
+    }
+}
@@ -0,0 +1,30 @@
+package com.agricultecommerce.controller;
+
+import com.agricultecommerce.dto.CatalogImportResult;
+import com.agricultecommerce.service.CatalogImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCatalogController {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    // The request body is read as a stream, so catalogs are not limited by the multipart size
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public CatalogImportResult importCsv(InputStream body) throws IOException {
+        return catalogImportService.importCsv(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/jsonl"})
+    public CatalogImportResult importJsonLines(InputStream body) throws IOException {
+        return catalogImportService.importJsonLines(body);
+    }
+}
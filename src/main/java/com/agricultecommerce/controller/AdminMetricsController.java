@@ -0,0 +1,48 @@
+package com.agricultecommerce.controller;
+
+import com.agricultecommerce.service.MetricsRegistry;
+import com.agricultecommerce.service.OrderEventDispatcher;
+import com.agricultecommerce.service.ProductSuggester;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/metrics")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminMetricsController {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired
+    private OrderEventDispatcher orderEventDispatcher;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @GetMapping
+    public Map<String, List<Map<String, Object>>> getMetrics() {
+        return metricsRegistry.snapshot();
+    }
+
+    @GetMapping(value = "/prometheus", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public String getPrometheusMetrics() {
+        return metricsRegistry.prometheus();
+    }
+
+    // Outbox backlog: undelivered and dead-lettered events and the age of the oldest undelivered one
+    @GetMapping("/order-events")
+    public Map<String, Object> getOrderEventStats() {
+        return orderEventDispatcher.stats();
+    }
+
+    // Typeahead index size and its estimated heap footprint
+    @GetMapping("/suggestions")
+    public Map<String, Object> getSuggestionStats() {
+        return productSuggester.stats();
+    }
+}
@@ -0,0 +1,29 @@
+package com.agricultecommerce.controller;
+
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/users")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminUserController {
+
+    @Autowired
+    private UserService userService;
+
+    @PutMapping("/{id}/role")
+    public ResponseEntity<Map<String, Object>> updateRole(@PathVariable Long id, @RequestParam User.Role role) {
+        User user = userService.changeRole(id, role);
+        return ResponseEntity.ok(Map.of(
+            "id", user.getId(),
+            "username", user.getUsername(),
+            "role", user.getRole()
+        ));
+    }
+}
@@ -1,5 +1,6 @@
 package com.agricultecommerce.controller;
 
+import com.agricultecommerce.config.AuthenticatedUser;
 import com.agricultecommerce.dto.JwtResponse;
 import com.agricultecommerce.dto.LoginRequest;
 import com.agricultecommerce.dto.RegisterRequest;
@@ -35,9 +36,9 @@ public class AuthController {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = jwtUtil.generateToken(loginRequest.getUsername());
-        User user = userService.findByUsername(loginRequest.getUsername()).orElseThrow();
-        return ResponseEntity.ok(new JwtResponse(token, user.getUsername(), user.getRole().name()));
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        String token = jwtUtil.generateToken(principal.getUsername());
+        return ResponseEntity.ok(new JwtResponse(token, principal.getUsername(), principal.getRole().name()));
     }
 
     @PostMapping("/register")
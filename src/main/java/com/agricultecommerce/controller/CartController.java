@@ -1,14 +1,12 @@
 package com.agricultecommerce.controller;
 
-import com.agricultecommerce.entity.Cart;
-import com.agricultecommerce.entity.CartItem;
-import com.agricultecommerce.entity.User;
+import com.agricultecommerce.config.AuthenticatedUser;
+import com.agricultecommerce.dto.CartDto;
+import com.agricultecommerce.dto.CartItemDto;
 import com.agricultecommerce.service.CartService;
-import com.agricultecommerce.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -18,35 +16,31 @@ public class CartController {
     @Autowired
     private CartService cartService;
 
-    @Autowired
-    private UserService userService;
-
     @GetMapping
-    public ResponseEntity<Cart> getCart(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByUsername(userDetails.getUsername()).orElseThrow();
-        Cart cart = cartService.getCartByUser(user);
-        return ResponseEntity.ok(cart);
+    public ResponseEntity<CartDto> getCart(@AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(cartService.getCart(principal.getId()));
     }
 
     @PostMapping("/add")
-    public ResponseEntity<CartItem> addItem(@AuthenticationPrincipal UserDetails userDetails,
-                                            @RequestParam Long productId, 
-                                            @RequestParam Integer quantity) {
-        User user = userService.findByUsername(userDetails.getUsername()).orElseThrow();
-        CartItem item = cartService.addItemToCart(user, productId, quantity);
+    public ResponseEntity<CartItemDto> addItem(@AuthenticationPrincipal AuthenticatedUser principal,
+                                               @RequestParam Long productId, 
+                                               @RequestParam Integer quantity) {
+        CartItemDto item = cartService.addItemToCart(principal.getId(), productId, quantity);
         return ResponseEntity.ok(item);
     }
 
     @PutMapping("/item/{itemId}")
-    public ResponseEntity<CartItem> updateItemQuantity(@PathVariable Long itemId,
-                                                        @RequestParam Integer quantity) {
-        cartService.updateCartItemQuantity(itemId, quantity);
+    public ResponseEntity<CartItemDto> updateItemQuantity(@AuthenticationPrincipal AuthenticatedUser principal,
+                                                          @PathVariable Long itemId,
+                                                          @RequestParam Integer quantity) {
+        cartService.updateCartItemQuantity(principal.getId(), itemId, quantity);
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/item/{itemId}")
-    public ResponseEntity<Void> removeItem(@PathVariable Long itemId) {
-        cartService.removeItemFromCart(itemId);
+    public ResponseEntity<Void> removeItem(@AuthenticationPrincipal AuthenticatedUser principal,
+                                           @PathVariable Long itemId) {
+        cartService.removeItemFromCart(principal.getId(), itemId);
         return ResponseEntity.noContent().build();
     }
 }
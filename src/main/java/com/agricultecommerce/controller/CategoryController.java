@@ -16,14 +16,27 @@ public class CategoryController {
     private CategoryService categoryService;
 
     @GetMapping
-    public List<Category> getAllCategories() {
-        return categoryService.getAllCategories();
+    public ResponseEntity<List<Category>> getAllCategories() {
+        List<Category> categories = categoryService.getAllCategories();
+        return ResponseEntity.ok()
+                .cacheControl(EntityTags.REVALIDATE)
+                .eTag(EntityTags.ofCategories(categories))
+                .body(categories);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
         return categoryService.getCategoryById(id)
-                .map(ResponseEntity::ok)
+                .map(category -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .cacheControl(EntityTags.REVALIDATE)
+                            .eTag(EntityTags.of(category));
+                    long lastModified = EntityTags.lastModified(category.getUpdatedAt());
+                    if (lastModified >= 0) {
+                        response.lastModified(lastModified);
+                    }
+                    return response.body(category);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,93 @@
+package com.agricultecommerce.controller;
+
+import com.agricultecommerce.dto.ProductCardDto;
+import com.agricultecommerce.dto.ProductDetailDto;
+import com.agricultecommerce.entity.Category;
+import org.springframework.http.CacheControl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Strong ETags for catalog reads, hashed from the ids and {@code updatedAt} versions of the
+ * rows in a response plus whatever else shapes its body (paging, resized image URLs), so the
+ * tag is known without serializing the body. Clients keep the body and revalidate each time.
+ */
+final class EntityTags {
+
+    static final CacheControl REVALIDATE = CacheControl.noCache();
+
+    private final MessageDigest digest;
+
+    private EntityTags(Object... shape) {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        add(Arrays.toString(shape));
+    }
+
+    static String of(ProductDetailDto product) {
+        return new EntityTags().add(product).tag();
+    }
+
+    static String of(Collection<ProductCardDto> products, Object... shape) {
+        EntityTags tags = new EntityTags(shape);
+        products.forEach(tags::add);
+        return tags.tag();
+    }
+
+    static String of(Category category) {
+        return new EntityTags().add(category).tag();
+    }
+
+    static String ofCategories(Collection<Category> categories) {
+        EntityTags tags = new EntityTags();
+        categories.forEach(tags::add);
+        return tags.tag();
+    }
+
+    /**
+     * Latest of the given versions in epoch millis, or -1 when none is known.
+     */
+    static long lastModified(LocalDateTime... versions) {
+        long latest = -1;
+        for (LocalDateTime version : versions) {
+            if (version != null) {
+                latest = Math.max(latest, version.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        return latest;
+    }
+
+    private EntityTags add(ProductCardDto product) {
+        return add(product.getId()).add(product.getUpdatedAt()).add(product.getCategoryUpdatedAt())
+                .add(product.getThumbnailUrl()).add(product.getCardImageUrl());
+    }
+
+    private EntityTags add(ProductDetailDto product) {
+        return add(product.getId()).add(product.getUpdatedAt()).add(product.getCategoryUpdatedAt())
+                .add(product.getThumbnailUrl()).add(product.getCardImageUrl());
+    }
+
+    private EntityTags add(Category category) {
+        return add(category.getId()).add(category.getUpdatedAt());
+    }
+
+    private EntityTags add(Object value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        return this;
+    }
+
+    private String tag() {
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16)) + "\"";
+    }
+}
@@ -1,16 +1,26 @@
 package com.agricultecommerce.controller;
 
+import com.agricultecommerce.config.AuthenticatedUser;
+import com.agricultecommerce.dto.CursorPage;
 import com.agricultecommerce.dto.OrderRequest;
 import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.exception.BadRequestException;
+import com.agricultecommerce.repository.OrderQueueQuery;
+import com.agricultecommerce.service.OrderExportService;
 import com.agricultecommerce.service.OrderService;
 import com.agricultecommerce.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -24,10 +34,13 @@ public class OrderController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private OrderExportService orderExportService;
+
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createOrder(@AuthenticationPrincipal UserDetails userDetails,
+    public ResponseEntity<Map<String, Object>> createOrder(@AuthenticationPrincipal AuthenticatedUser principal,
                                                              @RequestBody OrderRequest request) {
-        com.agricultecommerce.entity.User user = userService.findByUsername(userDetails.getUsername()).orElseThrow();
+        com.agricultecommerce.entity.User user = userService.getReference(principal.getId());
         Order order = orderService.createOrderFromCart(user, request.getShippingAddress());
         return ResponseEntity.ok(Map.of(
             "message", "Order placed successfully",
@@ -38,11 +51,11 @@ public class OrderController {
     }
 
     @PostMapping("/buy-now")
-    public ResponseEntity<Map<String, Object>> buyNow(@AuthenticationPrincipal UserDetails userDetails,
+    public ResponseEntity<Map<String, Object>> buyNow(@AuthenticationPrincipal AuthenticatedUser principal,
                                                        @RequestParam Long productId,
                                                        @RequestParam Integer quantity,
                                                        @RequestBody OrderRequest request) {
-        com.agricultecommerce.entity.User user = userService.findByUsername(userDetails.getUsername()).orElseThrow();
+        com.agricultecommerce.entity.User user = userService.getReference(principal.getId());
         Order order = orderService.buyNow(user, productId, quantity, request.getShippingAddress());
         return ResponseEntity.ok(Map.of(
             "message", "Order placed successfully",
@@ -53,9 +66,10 @@ public class OrderController {
     }
 
     @GetMapping
-    public List<Order> getUserOrders(@AuthenticationPrincipal UserDetails userDetails) {
-        com.agricultecommerce.entity.User user = userService.findByUsername(userDetails.getUsername()).orElseThrow();
-        return orderService.getOrdersByUser(user);
+    public CursorPage<Order> getUserOrders(@AuthenticationPrincipal AuthenticatedUser principal,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "20") Integer size) {
+        return orderService.getOrderHistory(principal.getId(), after, size);
     }
 
     @GetMapping("/{id}")
@@ -65,10 +79,62 @@ public class OrderController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    @GetMapping("/admin/all")
+    /**
+     * Pages through orders for fulfilment, newest first or, with {@code sort=oldest}, oldest
+     * first. {@code from} and {@code to} are inclusive order dates; {@code status} may be repeated.
+     */
+    @GetMapping("/admin")
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<Order> getOrderQueue(@RequestParam(required = false) List<Order.Status> status,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                           @RequestParam(required = false) Long userId,
+                                           @RequestParam(required = false) BigDecimal minTotal,
+                                           @RequestParam(required = false) BigDecimal maxTotal,
+                                           @RequestParam(defaultValue = "newest") String sort,
+                                           @RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "20") Integer size) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (!sort.equalsIgnoreCase("newest") && !sort.equalsIgnoreCase("oldest")) {
+            throw new BadRequestException("Unsupported sort: " + sort);
+        }
+        OrderQueueQuery query = new OrderQueueQuery();
+        query.setStatuses(status);
+        query.setFrom(from != null ? from.atStartOfDay() : null);
+        query.setTo(to != null ? to.plusDays(1).atStartOfDay() : null);
+        query.setUserId(userId);
+        query.setMinTotal(minTotal);
+        query.setMaxTotal(maxTotal);
+        query.setOldestFirst(sort.equalsIgnoreCase("oldest"));
+        return orderService.getOrderQueue(query, after, size);
+    }
+
+    /**
+     * Streams matching orders as NDJSON (one order per line) or CSV (one row per item).
+     * {@code from} and {@code to} are inclusive order dates; {@code status} may be repeated.
+     */
+    @GetMapping("/admin/export")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public void exportOrders(@RequestParam(defaultValue = "ndjson") String format,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(required = false) List<Order.Status> status,
+                             HttpServletResponse response) throws IOException {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("from must not be after to");
+        }
+        if (format.equalsIgnoreCase("csv")) {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"orders.csv\"");
+            orderExportService.exportCsv(from, to, status, response.getOutputStream());
+        } else if (format.equalsIgnoreCase("ndjson")) {
+            response.setContentType("application/x-ndjson;charset=UTF-8");
+            orderExportService.exportNdjson(from, to, status, response.getOutputStream());
+        } else {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
     }
 
     @PutMapping("/{id}/status")
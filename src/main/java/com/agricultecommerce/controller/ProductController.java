@@ -1,9 +1,19 @@
 package com.agricultecommerce.controller;
 
+import com.agricultecommerce.dto.CursorPage;
+import com.agricultecommerce.dto.FacetedProductPage;
+import com.agricultecommerce.dto.ImageUploadResult;
+import com.agricultecommerce.dto.ProductCardDto;
+import com.agricultecommerce.dto.ProductDetailDto;
+import com.agricultecommerce.dto.ProductSuggestion;
 import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.service.ProductFacetIndex;
+import com.agricultecommerce.service.ProductImageService;
 import com.agricultecommerce.service.ProductService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -11,12 +21,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.validation.Valid;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
@@ -25,25 +34,92 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductImageService productImageService;
+
+    // Catalog reads carry ETags; a matching If-None-Match gets a 304 and the body is never written
     @GetMapping
-    public Page<Product> getAllProducts(@RequestParam(defaultValue = "0") Integer page,
-                                        @RequestParam(defaultValue = "12") Integer size,
-                                        @RequestParam(required = false) Long categoryId,
-                                        @RequestParam(required = false) String search,
-                                        @RequestParam(required = false) String sortBy) {
-        return productService.getProducts(page, size, categoryId, search, sortBy);
+    public ResponseEntity<Page<ProductCardDto>> getAllProducts(@RequestParam(defaultValue = "0") Integer page,
+                                                               @RequestParam(defaultValue = "12") Integer size,
+                                                               @RequestParam(required = false) Long categoryId,
+                                                               @RequestParam(required = false) String search,
+                                                               @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                               @RequestParam(required = false) String sortBy) {
+        Page<ProductCardDto> products = productService.getProducts(page, size, categoryId, search, fuzzy, sortBy);
+        return ResponseEntity.ok()
+                .cacheControl(EntityTags.REVALIDATE)
+                .eTag(EntityTags.of(products.getContent(), products.getNumber(), products.getSize(),
+                        products.getTotalElements(), products.getSort()))
+                .body(products);
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorPage<ProductCardDto>> getProductsAfter(@RequestParam(required = false) String after,
+                                                                       @RequestParam(defaultValue = "12") Integer size,
+                                                                       @RequestParam(required = false) Long categoryId,
+                                                                       @RequestParam(required = false) String search,
+                                                                       @RequestParam(defaultValue = "false") boolean fuzzy,
+                                                                       @RequestParam(required = false) String sortBy) {
+        CursorPage<ProductCardDto> products = productService.getProductsAfter(after, size, categoryId, search, fuzzy, sortBy);
+        return ResponseEntity.ok()
+                .cacheControl(EntityTags.REVALIDATE)
+                .eTag(EntityTags.of(products.getContent(), products.getSize(), products.getNextCursor()))
+                .body(products);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetedProductPage> getFacetedProducts(@RequestParam(defaultValue = "0") Integer page,
+                                                                 @RequestParam(defaultValue = "12") Integer size,
+                                                                 @RequestParam(required = false) List<Long> categoryId,
+                                                                 @RequestParam(required = false) List<String> brand,
+                                                                 @RequestParam(required = false) List<String> origin,
+                                                                 @RequestParam(required = false) List<String> priceBand,
+                                                                 @RequestParam(required = false) Boolean inStock,
+                                                                 @RequestParam(required = false) String search,
+                                                                 @RequestParam(required = false) String sortBy) {
+        ProductFacetIndex.Filter filter = new ProductFacetIndex.Filter(toSet(categoryId), toSet(brand), toSet(origin),
+                toSet(priceBand), inStock);
+        FacetedProductPage products = productService.getFacetedProducts(filter, search, page, size, sortBy);
+        // Counts move with stock and with products outside the page, so they are part of the tag
+        List<String> counts = new ArrayList<>();
+        products.getFacets().forEach((facet, values) -> values.forEach(
+                value -> counts.add(facet + "=" + value.getValue() + ":" + value.getLabel() + ":" + value.getCount())));
+        return ResponseEntity.ok()
+                .cacheControl(EntityTags.REVALIDATE)
+                .eTag(EntityTags.of(products.getContent(), products.getPage(), products.getSize(),
+                        products.getTotalElements(), sortBy, counts))
+                .body(products);
+    }
+
+    @GetMapping("/suggest")
+    public List<ProductSuggestion> suggest(@RequestParam(defaultValue = "") String q,
+                                           @RequestParam(defaultValue = "8") Integer limit) {
+        return productService.suggest(q, limit);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ProductDetailDto> getProductById(@PathVariable Long id) {
         return productService.getProductById(id)
-                .map(ResponseEntity::ok)
+                .map(product -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .cacheControl(EntityTags.REVALIDATE)
+                            .eTag(EntityTags.of(product));
+                    long lastModified = EntityTags.lastModified(product.getUpdatedAt(), product.getCategoryUpdatedAt());
+                    if (lastModified >= 0) {
+                        response.lastModified(lastModified);
+                    }
+                    return response.body(product);
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/category/{categoryId}")
-    public List<Product> getProductsByCategory(@PathVariable Long categoryId) {
-        return productService.getProductsByCategory(categoryId);
+    public ResponseEntity<List<ProductCardDto>> getProductsByCategory(@PathVariable Long categoryId) {
+        List<ProductCardDto> products = productService.getProductsByCategory(categoryId);
+        return ResponseEntity.ok()
+                .cacheControl(EntityTags.REVALIDATE)
+                .eTag(EntityTags.of(products))
+                .body(products);
     }
 
     @PostMapping
@@ -72,17 +148,22 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
-    @PostMapping("/upload-image")
+    @PostMapping(value = "/upload-image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, String>> uploadImage(@RequestParam("file") MultipartFile file) throws IOException {
-        Path uploadDir = Paths.get("uploads");
-        if (!Files.exists(uploadDir)) {
-            Files.createDirectories(uploadDir);
+    public ImageUploadResult uploadImage(@RequestParam("file") MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return productImageService.store(in, file.getOriginalFilename(), file.getContentType());
         }
-        String filename = System.currentTimeMillis() + "-" + file.getOriginalFilename();
-        Path filePath = uploadDir.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-        String url = "/uploads/" + filename;
-        return ResponseEntity.ok(Map.of("url", url));
+    }
+
+    // A raw image body is streamed straight to the image store, with no multipart spooling
+    @PostMapping(value = "/upload-image", consumes = {"image/jpeg", "image/png", "image/gif", "image/webp"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ImageUploadResult uploadImageBody(InputStream body, @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) throws IOException {
+        return productImageService.store(body, null, contentType);
+    }
+
+    private static <T> Set<T> toSet(List<T> values) {
+        return values == null ? null : new HashSet<>(values);
     }
 }
@@ -0,0 +1,32 @@
+package com.agricultecommerce.dto;
+
+import java.util.List;
+
+public class CartDto {
+    private Long id;
+    private List<CartItemDto> cartItems;
+
+    public CartDto() {
+    }
+
+    public CartDto(Long id, List<CartItemDto> cartItems) {
+        this.id = id;
+        this.cartItems = cartItems;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public List<CartItemDto> getCartItems() {
+        return cartItems;
+    }
+
+    public void setCartItems(List<CartItemDto> cartItems) {
+        this.cartItems = cartItems;
+    }
+}
@@ -0,0 +1,52 @@
+package com.agricultecommerce.dto;
+
+import java.math.BigDecimal;
+
+public class CartItemDto {
+    private Long id;
+    private ProductDetailDto product;
+    private Integer quantity;
+    private BigDecimal price;
+
+    public CartItemDto() {
+    }
+
+    public CartItemDto(Long id, ProductDetailDto product, Integer quantity, BigDecimal price) {
+        this.id = id;
+        this.product = product;
+        this.quantity = quantity;
+        this.price = price;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ProductDetailDto getProduct() {
+        return product;
+    }
+
+    public void setProduct(ProductDetailDto product) {
+        this.product = product;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+}
@@ -0,0 +1,41 @@
+package com.agricultecommerce.dto;
+
+public class CatalogImportError {
+
+    private long line;
+    private String sku;
+    private String message;
+
+    public CatalogImportError() {
+    }
+
+    public CatalogImportError(long line, String sku, String message) {
+        this.line = line;
+        this.sku = sku;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public void setLine(long line) {
+        this.line = line;
+    }
+
+    public String getSku() {
+        return sku;
+    }
+
+    public void setSku(String sku) {
+        this.sku = sku;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
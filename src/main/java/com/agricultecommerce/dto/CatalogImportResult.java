@@ -0,0 +1,64 @@
+package com.agricultecommerce.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CatalogImportResult {
+
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long failed;
+    private List<CatalogImportError> errors = new ArrayList<>();
+
+    public CatalogImportResult() {
+    }
+
+    public CatalogImportResult(long rowsRead, long inserted, long updated, long failed, List<CatalogImportError> errors) {
+        this.rowsRead = rowsRead;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(long updated) {
+        this.updated = updated;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public List<CatalogImportError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<CatalogImportError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,65 @@
+package com.agricultecommerce.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class FacetedProductPage {
+
+    private List<ProductCardDto> content;
+    private int page;
+    private int size;
+    private int totalElements;
+    private Map<String, List<FacetCount>> facets;
+
+    public FacetedProductPage() {
+    }
+
+    public FacetedProductPage(List<ProductCardDto> content, int page, int size, int totalElements,
+                              Map<String, List<FacetCount>> facets) {
+        this.content = content;
+        this.page = page;
+        this.size = size;
+        this.totalElements = totalElements;
+        this.facets = facets;
+    }
+
+    public List<ProductCardDto> getContent() {
+        return content;
+    }
+
+    public void setContent(List<ProductCardDto> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public int getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(int totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public Map<String, List<FacetCount>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, List<FacetCount>> facets) {
+        this.facets = facets;
+    }
+}
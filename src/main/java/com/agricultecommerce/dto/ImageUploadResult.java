@@ -0,0 +1,72 @@
+package com.agricultecommerce.dto;
+
+public class ImageUploadResult {
+
+    private String url;
+    private String hash;
+    private boolean duplicate;
+    private String thumbnailUrl;
+    private String cardImageUrl;
+    private boolean variantsReady;
+
+    public ImageUploadResult() {
+    }
+
+    public ImageUploadResult(String url, String hash, boolean duplicate, String thumbnailUrl, String cardImageUrl,
+                             boolean variantsReady) {
+        this.url = url;
+        this.hash = hash;
+        this.duplicate = duplicate;
+        this.thumbnailUrl = thumbnailUrl;
+        this.cardImageUrl = cardImageUrl;
+        this.variantsReady = variantsReady;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public boolean isDuplicate() {
+        return duplicate;
+    }
+
+    public void setDuplicate(boolean duplicate) {
+        this.duplicate = duplicate;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getCardImageUrl() {
+        return cardImageUrl;
+    }
+
+    public void setCardImageUrl(String cardImageUrl) {
+        this.cardImageUrl = cardImageUrl;
+    }
+
+    public boolean isVariantsReady() {
+        return variantsReady;
+    }
+
+    public void setVariantsReady(boolean variantsReady) {
+        this.variantsReady = variantsReady;
+    }
+}
@@ -0,0 +1,197 @@
+package com.agricultecommerce.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ProductDetailDto {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private Integer stock;
+    private String imageUrl;
+    // Resized variants of imageUrl; the original until they have been rendered
+    private String thumbnailUrl;
+    private String cardImageUrl;
+    private String sourceUrl;
+    private String brand;
+    private String unit;
+    private String origin;
+    private String specifications;
+    private Long categoryId;
+    private String categoryName;
+    private LocalDateTime updatedAt;
+    // Only feeds the ETag: renaming the category changes categoryName in every card
+    @JsonIgnore
+    private LocalDateTime categoryUpdatedAt;
+
+    public ProductDetailDto() {
+    }
+
+    public ProductDetailDto(Long id, String name, String description, BigDecimal price, Integer stock,
+                            String imageUrl, String sourceUrl, String brand, String unit, String origin,
+                            String specifications, Long categoryId, String categoryName,
+                            LocalDateTime updatedAt, LocalDateTime categoryUpdatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.price = price;
+        this.stock = stock;
+        this.imageUrl = imageUrl;
+        this.sourceUrl = sourceUrl;
+        this.brand = brand;
+        this.unit = unit;
+        this.origin = origin;
+        this.specifications = specifications;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.updatedAt = updatedAt;
+        this.categoryUpdatedAt = categoryUpdatedAt;
+    }
+
+    public ProductDetailDto(ProductDetailDto other) {
+        this(other.id, other.name, other.description, other.price, other.stock, other.imageUrl, other.sourceUrl,
+                other.brand, other.unit, other.origin, other.specifications, other.categoryId, other.categoryName,
+                other.updatedAt, other.categoryUpdatedAt);
+        this.thumbnailUrl = other.thumbnailUrl;
+        this.cardImageUrl = other.cardImageUrl;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public BigDecimal getPrice() {
+        return price;
+    }
+
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getThumbnailUrl() {
+        return thumbnailUrl;
+    }
+
+    public void setThumbnailUrl(String thumbnailUrl) {
+        this.thumbnailUrl = thumbnailUrl;
+    }
+
+    public String getCardImageUrl() {
+        return cardImageUrl;
+    }
+
+    public void setCardImageUrl(String cardImageUrl) {
+        this.cardImageUrl = cardImageUrl;
+    }
+
+    public String getSourceUrl() {
+        return sourceUrl;
+    }
+
+    public void setSourceUrl(String sourceUrl) {
+        this.sourceUrl = sourceUrl;
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public void setBrand(String brand) {
+        this.brand = brand;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public void setUnit(String unit) {
+        this.unit = unit;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+
+    public String getSpecifications() {
+        return specifications;
+    }
+
+    public void setSpecifications(String specifications) {
+        this.specifications = specifications;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCategoryUpdatedAt() {
+        return categoryUpdatedAt;
+    }
+
+    public void setCategoryUpdatedAt(LocalDateTime categoryUpdatedAt) {
+        this.categoryUpdatedAt = categoryUpdatedAt;
+    }
+}
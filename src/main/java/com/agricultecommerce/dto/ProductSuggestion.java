@@ -0,0 +1,41 @@
+package com.agricultecommerce.dto;
+
+public class ProductSuggestion {
+
+    private String type;
+    private String text;
+    private Long id;
+
+    public ProductSuggestion() {
+    }
+
+    public ProductSuggestion(String type, String text, Long id) {
+        this.type = type;
+        this.text = text;
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+}
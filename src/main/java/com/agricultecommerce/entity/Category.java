@@ -1,8 +1,10 @@
 package com.agricultecommerce.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
@@ -18,6 +20,11 @@ public class Category {
 
     private String description;
 
+    // Set on every insert and update; catalog reads derive their ETags from it
+    @Column(name = "updated_at")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private LocalDateTime updatedAt;
+
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL)
     @JsonIgnore
     private Set<Product> products;
@@ -31,6 +38,14 @@ public class Category {
         this.description = description;
     }
 
+    /**
+     * Detached copy of the scalar fields, without the products.
+     */
+    public Category(Category other) {
+        this(other.id, other.name, other.description);
+        this.updatedAt = other.updatedAt;
+    }
+
     public Long getId() {
         return id;
     }
@@ -62,4 +77,18 @@ public class Category {
     public void setProducts(Set<Product> products) {
         this.products = products;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = LocalDateTime.now();
+    }
 }
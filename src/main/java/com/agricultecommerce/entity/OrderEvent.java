@@ -0,0 +1,173 @@
+package com.agricultecommerce.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Transactional outbox row for the order lifecycle. It is written in the same transaction as
+ * the order change it describes and deleted once every handler has accepted it; failed
+ * deliveries are retried with backoff until {@code dead}.
+ */
+@Entity
+@Table(name = "order_events", indexes = {
+        @Index(name = "idx_order_events_due", columnList = "dead, available_at, id"),
+        @Index(name = "idx_order_events_order", columnList = "order_id, id")
+})
+public class OrderEvent {
+
+    public enum Type {
+        PLACED, STATUS_CHANGED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_id_gen")
+    @SequenceGenerator(name = "order_events_id_gen", sequenceName = "order_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Type type;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Order.Status status;
+
+    @Enumerated(EnumType.STRING)
+    private Order.Status previousStatus;
+
+    @Column(nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private boolean dead;
+
+    public OrderEvent() {
+    }
+
+    public OrderEvent(Type type, Order order, Order.Status previousStatus) {
+        this.type = type;
+        this.orderId = order.getId();
+        this.userId = order.getUser().getId();
+        this.status = order.getStatus();
+        this.previousStatus = previousStatus;
+        this.totalAmount = order.getTotalAmount();
+        this.createdAt = LocalDateTime.now();
+        this.availableAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Order.Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Order.Status status) {
+        this.status = status;
+    }
+
+    public Order.Status getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(Order.Status previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getAvailableAt() {
+        return availableAt;
+    }
+
+    public void setAvailableAt(LocalDateTime availableAt) {
+        this.availableAt = availableAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public boolean isDead() {
+        return dead;
+    }
+
+    public void setDead(boolean dead) {
+        this.dead = dead;
+    }
+}
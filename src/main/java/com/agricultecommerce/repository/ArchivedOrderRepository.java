@@ -0,0 +1,7 @@
+package com.agricultecommerce.repository;
+
+import com.agricultecommerce.entity.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+}
@@ -1,7 +0,0 @@
-package com.agricultecommerce.repository;
-
-import com.agricultecommerce.entity.CartItem;
-import org.springframework.data.jpa.repository.JpaRepository;
-
-public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-}
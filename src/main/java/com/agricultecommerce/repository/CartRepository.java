@@ -1,10 +0,0 @@
-package com.agricultecommerce.repository;
-
-import com.agricultecommerce.entity.Cart;
-import org.springframework.data.jpa.repository.JpaRepository;
-
-import java.util.Optional;
-
-public interface CartRepository extends JpaRepository<Cart, Long> {
-    Optional<Cart> findByUserId(Long userId);
-}
@@ -0,0 +1,15 @@
+package com.agricultecommerce.repository;
+
+import com.agricultecommerce.entity.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    long countByDead(boolean dead);
+
+    @Query("SELECT MIN(e.createdAt) FROM OrderEvent e WHERE e.dead = false")
+    LocalDateTime findOldestPendingCreatedAt();
+}
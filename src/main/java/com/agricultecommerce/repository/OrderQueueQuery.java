@@ -0,0 +1,155 @@
+package com.agricultecommerce.repository;
+
+import com.agricultecommerce.entity.Order;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Filters and keyset position for the admin order queue, rendered as one SQL statement over
+ * {@code orders}. Status, user and date predicates line up with the composite indexes on
+ * {@link Order}; the total is a residual filter applied to the index range.
+ */
+public class OrderQueueQuery {
+
+    private Collection<Order.Status> statuses;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long userId;
+    private BigDecimal minTotal;
+    private BigDecimal maxTotal;
+    private boolean oldestFirst;
+    private LocalDateTime afterOrderDate;
+    private Long afterId;
+    private int limit = 20;
+
+    public String sql() {
+        StringBuilder sql = new StringBuilder("SELECT o.id, o.order_date FROM orders o WHERE 1 = 1");
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(statuses.size() == 1 ? " AND o.status = :status" : " AND o.status IN (:statuses)");
+        }
+        if (userId != null) {
+            sql.append(" AND o.user_id = :userId");
+        }
+        if (from != null) {
+            sql.append(" AND o.order_date >= :from");
+        }
+        if (to != null) {
+            sql.append(" AND o.order_date < :to");
+        }
+        if (minTotal != null) {
+            sql.append(" AND o.total_amount >= :minTotal");
+        }
+        if (maxTotal != null) {
+            sql.append(" AND o.total_amount <= :maxTotal");
+        }
+        String direction = oldestFirst ? "ASC" : "DESC";
+        if (afterId != null) {
+            String beyond = oldestFirst ? ">" : "<";
+            sql.append(" AND (o.order_date ").append(beyond).append(" :afterOrderDate OR (o.order_date = :afterOrderDate AND o.id ")
+                    .append(beyond).append(" :afterId))");
+        }
+        sql.append(" ORDER BY o.order_date ").append(direction).append(", o.id ").append(direction);
+        sql.append(" LIMIT :limit");
+        return sql.toString();
+    }
+
+    public MapSqlParameterSource params() {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (statuses != null && !statuses.isEmpty()) {
+            params.addValue("status", statuses.iterator().next().name());
+            params.addValue("statuses", statuses.stream().map(Enum::name).toList());
+        }
+        params.addValue("userId", userId);
+        params.addValue("from", from);
+        params.addValue("to", to);
+        params.addValue("minTotal", minTotal);
+        params.addValue("maxTotal", maxTotal);
+        params.addValue("afterOrderDate", afterOrderDate);
+        params.addValue("afterId", afterId);
+        params.addValue("limit", limit);
+        return params;
+    }
+
+    public Collection<Order.Status> getStatuses() {
+        return statuses;
+    }
+
+    public void setStatuses(Collection<Order.Status> statuses) {
+        this.statuses = statuses;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDateTime from) {
+        this.from = from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDateTime to) {
+        this.to = to;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public BigDecimal getMinTotal() {
+        return minTotal;
+    }
+
+    public void setMinTotal(BigDecimal minTotal) {
+        this.minTotal = minTotal;
+    }
+
+    public BigDecimal getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(BigDecimal maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public boolean isOldestFirst() {
+        return oldestFirst;
+    }
+
+    public void setOldestFirst(boolean oldestFirst) {
+        this.oldestFirst = oldestFirst;
+    }
+
+    public LocalDateTime getAfterOrderDate() {
+        return afterOrderDate;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    /**
+     * Continues after the order with this date and id (the last one on the previous page).
+     */
+    public void setAfter(LocalDateTime orderDate, Long id) {
+        this.afterOrderDate = orderDate;
+        this.afterId = id;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+}
@@ -1,10 +1,45 @@
 package com.agricultecommerce.repository;
 
 import com.agricultecommerce.entity.Order;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    // History rows (id, order_date, archived) from the hot table and the archive index, each
+    // branch a keyset scan of its (user_id, order_date, id) index
+    @Query(value = "SELECT * FROM (" +
+           "(SELECT o.id, o.order_date, 0 AS archived FROM orders o WHERE o.user_id = :userId " +
+           "ORDER BY o.order_date DESC, o.id DESC LIMIT :limit) UNION ALL " +
+           "(SELECT a.id, a.order_date, 1 AS archived FROM archived_orders a WHERE a.user_id = :userId " +
+           "ORDER BY a.order_date DESC, a.id DESC LIMIT :limit)) h " +
+           "ORDER BY h.order_date DESC, h.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findHistoryRows(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM (" +
+           "(SELECT o.id, o.order_date, 0 AS archived FROM orders o WHERE o.user_id = :userId " +
+           "AND (o.order_date < :orderDate OR (o.order_date = :orderDate AND o.id < :id)) " +
+           "ORDER BY o.order_date DESC, o.id DESC LIMIT :limit) UNION ALL " +
+           "(SELECT a.id, a.order_date, 1 AS archived FROM archived_orders a WHERE a.user_id = :userId " +
+           "AND (a.order_date < :orderDate OR (a.order_date = :orderDate AND a.id < :id)) " +
+           "ORDER BY a.order_date DESC, a.id DESC LIMIT :limit)) h " +
+           "ORDER BY h.order_date DESC, h.id DESC LIMIT :limit", nativeQuery = true)
+    List<Object[]> findHistoryRowsBefore(@Param("userId") Long userId,
+                                         @Param("orderDate") LocalDateTime orderDate,
+                                         @Param("id") Long id,
+                                         @Param("limit") int limit);
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "orderItems.product.category"})
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product", "orderItems.product.category"})
+    Optional<Order> findWithItemsById(Long id);
 }
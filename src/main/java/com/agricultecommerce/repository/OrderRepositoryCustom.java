@@ -0,0 +1,11 @@
+package com.agricultecommerce.repository;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Id and order date of the orders matching the queue query, in queue order.
+     */
+    List<Object[]> findQueueRows(OrderQueueQuery query);
+}
@@ -0,0 +1,18 @@
+package com.agricultecommerce.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<Object[]> findQueueRows(OrderQueueQuery query) {
+        return jdbcTemplate.query(query.sql(), query.params(),
+                (rs, rowNum) -> new Object[]{rs.getLong("id"), rs.getTimestamp("order_date").toLocalDateTime()});
+    }
+}
@@ -1,5 +1,7 @@
 package com.agricultecommerce.repository;
 
+import com.agricultecommerce.dto.ProductCardDto;
+import com.agricultecommerce.dto.ProductDetailDto;
 import com.agricultecommerce.entity.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -7,16 +9,30 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategoryId(Long categoryId);
-    
-    @Query("SELECT p FROM Product p WHERE " +
-           "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
-           "(:search IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Product> findProducts(@Param("categoryId") Long categoryId, 
-                               @Param("search") String search, 
-                               Pageable pageable);
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    String CARD_SELECT = "SELECT new com.agricultecommerce.dto.ProductCardDto(" +
+            "p.id, p.name, p.price, p.stock, p.imageUrl, p.sourceUrl, p.brand, p.unit, c.id, c.name, p.updatedAt, c.updatedAt) " +
+            "FROM Product p LEFT JOIN p.category c ";
+
+    @Query(value = CARD_SELECT + "WHERE (:categoryId IS NULL OR c.id = :categoryId)",
+           countQuery = "SELECT COUNT(p) FROM Product p WHERE (:categoryId IS NULL OR p.category.id = :categoryId)")
+    Page<ProductCardDto> findProductCards(@Param("categoryId") Long categoryId,
+                                          Pageable pageable);
+
+    @Query(CARD_SELECT + "WHERE c.id = :categoryId")
+    List<ProductCardDto> findCardsByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(CARD_SELECT + "WHERE p.id IN :ids")
+    List<ProductCardDto> findCardsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.agricultecommerce.dto.ProductDetailDto(" +
+           "p.id, p.name, p.description, p.price, p.stock, p.imageUrl, p.sourceUrl, p.brand, p.unit, " +
+           "p.origin, p.specifications, c.id, c.name, p.updatedAt, c.updatedAt) " +
+           "FROM Product p LEFT JOIN p.category c WHERE p.id = :id")
+    Optional<ProductDetailDto> findDetailById(@Param("id") Long id);
 }
@@ -0,0 +1,23 @@
+package com.agricultecommerce.repository;
+
+import com.agricultecommerce.dto.ProductCardDto;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Keyset page of product cards ordered by {@code order} then id, starting after the row
+     * with the given sort key and id ({@code lastValue}/{@code lastId} null for the first page).
+     */
+    List<ProductCardDto> findCardsAfter(Long categoryId, Sort.Order order, Comparable<?> lastValue, Long lastId, int limit);
+
+    /**
+     * Takes {@code quantity} off each product's stock in one JDBC batch, each row only if it
+     * still has that much, and returns the ids whose rows were left untouched. Rows are updated
+     * in id order so concurrent checkouts lock them in the same order.
+     */
+    List<Long> decrementStock(Map<Long, Integer> quantities);
+}
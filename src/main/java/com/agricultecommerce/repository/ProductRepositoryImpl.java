@@ -0,0 +1,121 @@
+package com.agricultecommerce.repository;
+
+import com.agricultecommerce.dto.ProductCardDto;
+import com.agricultecommerce.entity.Category;
+import com.agricultecommerce.entity.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET stock = stock - ?, updated_at = ? WHERE id = ? AND stock >= ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // MySQL's rewriteBatchedStatements=true reports SUCCESS_NO_INFO instead of per-row counts,
+    // so the stock decrement then runs one statement per line
+    private boolean perRowUpdates;
+
+    @PostConstruct
+    void detectBatchUpdateCounts() {
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getURL());
+        perRowUpdates = url != null && url.toLowerCase(Locale.ROOT).contains("rewritebatchedstatements=true");
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<ProductCardDto> findCardsAfter(Long categoryId, Sort.Order order, Comparable<?> lastValue, Long lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductCardDto> query = cb.createQuery(ProductCardDto.class);
+        Root<Product> p = query.from(Product.class);
+        Join<Product, Category> c = p.join("category", JoinType.LEFT);
+        query.select(cb.construct(ProductCardDto.class,
+                p.get("id"), p.get("name"), p.get("price"), p.get("stock"), p.get("imageUrl"), p.get("sourceUrl"),
+                p.get("brand"), p.get("unit"), c.get("id"), c.get("name"), p.get("updatedAt"), c.get("updatedAt")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (categoryId != null) {
+            predicates.add(cb.equal(c.get("id"), categoryId));
+        }
+        Path<Comparable> field = p.get(order.getProperty());
+        Path<Long> id = p.get("id");
+        boolean byId = order.getProperty().equals("id");
+        if (lastId != null) {
+            Comparable value = lastValue;
+            if (byId) {
+                predicates.add(order.isAscending() ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId));
+            } else if (order.isAscending()) {
+                predicates.add(cb.or(cb.greaterThan(field, value),
+                        cb.and(cb.equal(field, value), cb.greaterThan(id, lastId))));
+            } else {
+                predicates.add(cb.or(cb.lessThan(field, value),
+                        cb.and(cb.equal(field, value), cb.lessThan(id, lastId))));
+            }
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        List<Order> orderBy = new ArrayList<>();
+        orderBy.add(order.isAscending() ? cb.asc(field) : cb.desc(field));
+        if (!byId) {
+            orderBy.add(order.isAscending() ? cb.asc(id) : cb.desc(id));
+        }
+        query.orderBy(orderBy);
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Long> decrementStock(Map<Long, Integer> quantities) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(quantities).entrySet());
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> args = lines.stream()
+                .map(line -> new Object[]{line.getValue(), now, line.getKey(), line.getValue()}).toList();
+        int[] counts;
+        if (perRowUpdates) {
+            counts = new int[args.size()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = jdbcTemplate.update(DECREMENT_SQL, args.get(i));
+            }
+        } else {
+            counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+        }
+
+        List<Long> failed = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            // Only reached if the driver hides counts some other way; the caller's transaction rolls back
+            if (counts[i] == Statement.SUCCESS_NO_INFO) {
+                throw new IllegalStateException("The JDBC driver did not report per-row update counts");
+            }
+            if (counts[i] == 0) {
+                failed.add(lines.get(i).getKey());
+            }
+        }
+        return failed;
+    }
+}
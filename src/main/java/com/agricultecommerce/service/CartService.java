@@ -1,103 +1,104 @@
 package com.agricultecommerce.service;
 
-import com.agricultecommerce.entity.Cart;
-import com.agricultecommerce.entity.CartItem;
-import com.agricultecommerce.entity.Product;
-import com.agricultecommerce.entity.User;
+import com.agricultecommerce.dto.CartDto;
+import com.agricultecommerce.dto.CartItemDto;
+import com.agricultecommerce.dto.ProductDetailDto;
 import com.agricultecommerce.exception.BadRequestException;
 import com.agricultecommerce.exception.ResourceNotFoundException;
-import com.agricultecommerce.repository.CartItemRepository;
-import com.agricultecommerce.repository.CartRepository;
-import com.agricultecommerce.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.HashSet;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class CartService {
 
     @Autowired
-    private CartRepository cartRepository;
+    private CartStore cartStore;
 
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private ProductService productService;
 
     @Autowired
-    private ProductRepository productRepository;
+    private InventoryLedger inventoryLedger;
 
-    public Cart getCartByUser(User user) {
-        return cartRepository.findByUserId(user.getId()).orElseGet(() -> {
-            Cart cart = new Cart();
-            cart.setUser(user);
-            cart.setCartItems(new HashSet<>());
-            return cartRepository.save(cart);
-        });
+    public CartDto getCart(Long userId) {
+        CartStore.Snapshot cart = cartStore.snapshot(userId);
+        List<CartItemDto> items = new ArrayList<>(cart.lines().size());
+        for (CartStore.Line line : cart.lines()) {
+            productService.getProductById(line.productId())
+                    .ifPresent(product -> items.add(toDto(line, product)));
+        }
+        return new CartDto(cart.cartId(), items);
     }
 
-    @Transactional
-    public CartItem addItemToCart(User user, Long productId, Integer quantity) {
+    public CartItemDto addItemToCart(Long userId, Long productId, Integer quantity) {
         if (quantity == null || quantity <= 0) {
             throw new BadRequestException("Quantity must be greater than zero");
         }
         
-        Cart cart = getCartByUser(user);
-        Product product = productRepository.findById(productId)
+        ProductDetailDto product = productService.getProductById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
         
-        if (product.getStock() < quantity) {
+        int available = inventoryLedger.available(productId);
+        if (available < quantity) {
             throw new BadRequestException("Insufficient stock available");
         }
 
-        Optional<CartItem> existingItem = cart.getCartItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst();
-
-        if (existingItem.isPresent()) {
-            CartItem item = existingItem.get();
-            int newQuantity = item.getQuantity() + quantity;
-            if (product.getStock() < newQuantity) {
+        return cartStore.update(userId, lines -> {
+            CartStore.Line existing = lines.values().stream()
+                    .filter(line -> line.productId().equals(productId))
+                    .findFirst()
+                    .orElse(null);
+            int newQuantity = existing == null ? quantity : existing.quantity() + quantity;
+            if (available < newQuantity) {
                 throw new BadRequestException("Insufficient stock available");
             }
-            item.setQuantity(newQuantity);
-            item.setPrice(product.getPrice().multiply(BigDecimal.valueOf(newQuantity)));
-            return cartItemRepository.save(item);
-        } else {
-            CartItem item = new CartItem();
-            item.setCart(cart);
-            item.setProduct(product);
-            item.setQuantity(quantity);
-            item.setPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
-            return cartItemRepository.save(item);
-        }
+            Long itemId = existing == null ? cartStore.newItemId() : existing.itemId();
+            CartStore.Line line = new CartStore.Line(itemId, productId, newQuantity,
+                    product.getPrice().multiply(BigDecimal.valueOf(newQuantity)));
+            lines.put(itemId, line);
+            return toDto(line, product);
+        });
     }
 
-    @Transactional
-    public void updateCartItemQuantity(Long itemId, Integer quantity) {
+    public void updateCartItemQuantity(Long userId, Long itemId, Integer quantity) {
         if (quantity == null || quantity <= 0) {
             throw new BadRequestException("Quantity must be greater than zero");
         }
         
-        CartItem item = cartItemRepository.findById(itemId)
+        Long productId = cartStore.snapshot(userId).lines().stream()
+                .filter(line -> line.itemId().equals(itemId))
+                .map(CartStore.Line::productId)
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Cart item not found"));
-        
-        Product product = item.getProduct();
-        if (product.getStock() < quantity) {
+        ProductDetailDto product = productService.getProductById(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
+        if (inventoryLedger.available(productId) < quantity) {
             throw new BadRequestException("Insufficient stock available");
         }
         
-        item.setQuantity(quantity);
-        item.setPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
-        cartItemRepository.save(item);
+        cartStore.update(userId, lines -> {
+            if (!lines.containsKey(itemId)) {
+                throw new ResourceNotFoundException("Cart item not found");
+            }
+            return lines.put(itemId, new CartStore.Line(itemId, productId, quantity,
+                    product.getPrice().multiply(BigDecimal.valueOf(quantity))));
+        });
     }
 
-    public void removeItemFromCart(Long itemId) {
-        if (!cartItemRepository.existsById(itemId)) {
-            throw new ResourceNotFoundException("Cart item not found");
-        }
-        cartItemRepository.deleteById(itemId);
+    public void removeItemFromCart(Long userId, Long itemId) {
+        cartStore.update(userId, lines -> {
+            if (!lines.containsKey(itemId)) {
+                throw new ResourceNotFoundException("Cart item not found");
+            }
+            return lines.remove(itemId);
+        });
+    }
+
+    private static CartItemDto toDto(CartStore.Line line, ProductDetailDto product) {
+        return new CartItemDto(line.itemId(), product, line.quantity(), line.price());
     }
 }
@@ -0,0 +1,426 @@
+package com.agricultecommerce.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Write-behind store of shopping carts keyed by user id. Reads and edits work on the
+ * in-memory copy; edited carts are queued and a scheduled flush replaces each queued cart's
+ * {@code cart_items} rows in JDBC batches, so any number of edits between flushes costs one
+ * write. Resident carts are bounded by an LRU; a cart is only dropped from memory once its
+ * edits have been written. A batch that fails is retried cart by cart, so one cart that
+ * cannot be written never holds back the others; it stays queued and resident, and scheduled
+ * flushes retry it with exponential backoff until a write succeeds.
+ *
+ * <p>Monitors guard only in-memory state; anything that waits on JDBC holds a
+ * {@link ReentrantLock} instead, so a virtual thread blocked on the database never pins its
+ * carrier thread.
+ */
+@Component
+public class CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${cart.store.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    @Value("${cart.store.flush-batch-size:500}")
+    private int flushBatchSize = 500;
+
+    @Value("${cart.store.flush-on-checkout:true}")
+    private boolean flushOnCheckout = true;
+
+    @Value("${cart.store.retry-backoff-ms:1000}")
+    private long retryBackoffMs = 1000;
+
+    @Value("${cart.store.max-retry-backoff-ms:300000}")
+    private long maxRetryBackoffMs = 300_000;
+
+    private final LinkedHashMap<Long, StoredCart> resident = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, StoredCart> eldest) {
+            return size() > maxEntries && eldest.getValue().evictIfClean();
+        }
+    };
+    private final Map<Long, StoredCart> dirty = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicLong nextItemId = new AtomicLong();
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        // The checkout flush runs in afterCommit of the order's transaction, where a REQUIRED
+        // template would join the already-committed transaction and its writes would not commit
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Runs after schema.sql: the JdbcTemplate is only created once the database is initialized
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM cart_items", Long.class);
+        nextItemId.set(max + 1);
+    }
+
+    public record Line(Long itemId, Long productId, int quantity, BigDecimal price) {
+    }
+
+    public record Snapshot(Long cartId, List<Line> lines) {
+    }
+
+    public Snapshot snapshot(Long userId) {
+        while (true) {
+            StoredCart cart = cart(userId);
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    return new Snapshot(cart.cartId, List.copyOf(cart.lines.values()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies a change to the user's lines (item id to line, in insertion order) and queues
+     * the cart for writing. A change that throws leaves the cart untouched and unqueued, so
+     * callers validate before they modify the map.
+     */
+    public <T> T update(Long userId, Function<Map<Long, Line>, T> change) {
+        while (true) {
+            StoredCart cart = cart(userId);
+            synchronized (cart) {
+                if (cart.evicted) {
+                    continue;
+                }
+                T result = change.apply(cart.lines);
+                cart.version++;
+                cart.dirty = true;
+                dirty.put(userId, cart);
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Hands out cart item ids. Called from inside {@link #update}, so the counter is seeded past
+     * the stored ids at startup and never touches the database. This store is the only writer
+     * of {@code cart_items}.
+     */
+    public long newItemId() {
+        return nextItemId.getAndIncrement();
+    }
+
+    /**
+     * Drops a deleted product from every cart held in memory and from the stored rows of carts
+     * that are not.
+     */
+    public void removeProduct(Long productId) {
+        List<StoredCart> carts;
+        synchronized (resident) {
+            carts = new ArrayList<>(resident.values());
+        }
+        carts.addAll(dirty.values());
+        for (StoredCart cart : carts) {
+            synchronized (cart) {
+                if (!cart.evicted && cart.lines.values().removeIf(line -> line.productId().equals(productId))) {
+                    cart.version++;
+                    cart.dirty = true;
+                    dirty.put(cart.userId, cart);
+                }
+            }
+        }
+        jdbcTemplate.update("DELETE FROM cart_items WHERE product_id = ?", productId);
+    }
+
+    /**
+     * Removes checked-out lines once the order commits (immediately outside a transaction),
+     * writing the cart straight away when {@code cart.store.flush-on-checkout} is set.
+     */
+    public void removeAfterCommit(Long userId, Collection<Long> itemIds) {
+        Runnable removal = () -> {
+            update(userId, lines -> lines.keySet().removeAll(itemIds));
+            if (flushOnCheckout) {
+                flush(userId);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            removal.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                removal.run();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:500}")
+    public void flush() {
+        flushDue(System.currentTimeMillis());
+    }
+
+    private void flushDue(long now) {
+        List<StoredCart> batch = new ArrayList<>();
+        for (StoredCart cart : dirty.values()) {
+            if (cart.retryAt > now) {
+                continue;
+            }
+            batch.add(cart);
+            if (batch.size() >= flushBatchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+        trim();
+    }
+
+    public void flush(Long userId) {
+        StoredCart cart = dirty.get(userId);
+        if (cart != null) {
+            writeBatch(List.of(cart));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        // Last chance for carts that are backing off
+        flushDue(Long.MAX_VALUE);
+    }
+
+    int dirtyCount() {
+        return dirty.size();
+    }
+
+    long quarantinedCount() {
+        return dirty.values().stream().filter(cart -> cart.failures > 0).count();
+    }
+
+    private StoredCart cart(Long userId) {
+        synchronized (resident) {
+            StoredCart cart = resident.get(userId);
+            if (cart != null) {
+                return cart;
+            }
+            cart = dirty.get(userId);
+            if (cart != null) {
+                resident.put(userId, cart);
+                return cart;
+            }
+        }
+        StoredCart loaded = load(userId);
+        synchronized (resident) {
+            StoredCart raced = resident.get(userId);
+            if (raced != null) {
+                return raced;
+            }
+            resident.put(userId, loaded);
+            return loaded;
+        }
+    }
+
+    private StoredCart load(Long userId) {
+        StoredCart cart = new StoredCart(userId);
+        jdbcTemplate.query("SELECT c.id AS cart_id, i.id, i.product_id, i.quantity, i.price FROM carts c " +
+                "LEFT JOIN cart_items i ON i.cart_id = c.id WHERE c.user_id = ? ORDER BY i.id", rs -> {
+            cart.cartId = rs.getLong("cart_id");
+            long itemId = rs.getLong("id");
+            if (!rs.wasNull()) {
+                cart.lines.put(itemId, new Line(itemId, rs.getLong("product_id"), rs.getInt("quantity"), rs.getBigDecimal("price")));
+            }
+        }, userId);
+        return cart;
+    }
+
+    private void writeBatch(List<StoredCart> carts) {
+        flushLock.lock();
+        try {
+            List<PendingCart> pending = new ArrayList<>(carts.size());
+            for (StoredCart cart : carts) {
+                synchronized (cart) {
+                    if (cart.dirty) {
+                        pending.add(new PendingCart(cart, cart.version, List.copyOf(cart.lines.values())));
+                    }
+                }
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            try {
+                write(pending);
+            } catch (DataAccessException e) {
+                if (pending.size() == 1) {
+                    quarantine(pending.get(0), e);
+                    return;
+                }
+                // The failed batch rolled back as a whole; write the carts one by one so only the bad one is held back
+                for (PendingCart cart : pending) {
+                    try {
+                        write(List.of(cart));
+                    } catch (DataAccessException single) {
+                        quarantine(cart, single);
+                    }
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<PendingCart> pending) {
+        Long[] cartIds = transactionTemplate.execute(status -> {
+            Long[] ids = new Long[pending.size()];
+            List<Object[]> deletes = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                StoredCart cart = pending.get(i).cart();
+                if (cart.cartId == null) {
+                    ids[i] = insertCart(cart.userId);
+                } else {
+                    ids[i] = cart.cartId;
+                    deletes.add(new Object[]{cart.cartId});
+                }
+                for (Line line : pending.get(i).lines()) {
+                    inserts.add(new Object[]{line.itemId(), ids[i], line.productId(), line.quantity(), line.price()});
+                }
+            }
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE cart_id = ?", deletes);
+            jdbcTemplate.batchUpdate("INSERT INTO cart_items (id, cart_id, product_id, quantity, price) VALUES (?, ?, ?, ?, ?)", inserts);
+            return ids;
+        });
+
+        for (int i = 0; i < pending.size(); i++) {
+            StoredCart cart = pending.get(i).cart();
+            synchronized (cart) {
+                cart.cartId = cartIds[i];
+                // Edits made while writing keep the cart queued for the next flush
+                cart.failures = 0;
+                cart.retryAt = 0;
+                if (cart.version == pending.get(i).version()) {
+                    cart.dirty = false;
+                    dirty.remove(cart.userId, cart);
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles a cart that failed to write on its own. Lines whose product no longer exists are
+     * dropped and the cart stays queued; a cart that fails for any other reason stays queued and
+     * resident, and scheduled flushes skip it until its backoff has passed rather than failing
+     * every flush from now on.
+     */
+    private void quarantine(PendingCart failed, DataAccessException cause) {
+        StoredCart cart = failed.cart();
+        Set<Long> existing = existingProducts(failed.lines());
+        int failures;
+        long backoff;
+        synchronized (cart) {
+            if (cart.lines.values().removeIf(line -> !existing.contains(line.productId()))) {
+                cart.version++;
+                log.warn("Dropped lines for deleted products from the cart of user {}: {}", cart.userId, cause.getMessage());
+                return;
+            }
+            failures = ++cart.failures;
+            backoff = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(failures - 1, 20));
+            cart.retryAt = System.currentTimeMillis() + backoff;
+        }
+        log.error("Cart of user {} could not be written (attempt {}), retrying in {} ms", cart.userId, failures, backoff, cause);
+    }
+
+    private Set<Long> existingProducts(List<Line> lines) {
+        if (lines.isEmpty()) {
+            return Collections.emptySet();
+        }
+        List<Object> ids = new ArrayList<>();
+        for (Line line : lines) {
+            ids.add(line.productId());
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM products WHERE id IN (" + placeholders + ")",
+                Long.class, ids.toArray()));
+    }
+
+    private Long insertCart(Long userId) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO carts (user_id) VALUES (?)", new String[]{"id"});
+            statement.setLong(1, userId);
+            return statement;
+        }, keys);
+        return keys.getKey().longValue();
+    }
+
+    private void trim() {
+        synchronized (resident) {
+            Iterator<StoredCart> it = resident.values().iterator();
+            while (resident.size() > maxEntries && it.hasNext()) {
+                if (it.next().evictIfClean()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private record PendingCart(StoredCart cart, long version, List<Line> lines) {
+    }
+
+    private static final class StoredCart {
+        private final Long userId;
+        private final Map<Long, Line> lines = new LinkedHashMap<>();
+        private Long cartId;
+        private long version;
+        private boolean dirty;
+        private boolean evicted;
+        // Failed writes since the last successful one; read unlocked by flush and quarantinedCount
+        private volatile int failures;
+        private volatile long retryAt;
+
+        private StoredCart(Long userId) {
+            this.userId = userId;
+        }
+
+        private synchronized boolean evictIfClean() {
+            if (dirty) {
+                return false;
+            }
+            evicted = true;
+            return true;
+        }
+    }
+}
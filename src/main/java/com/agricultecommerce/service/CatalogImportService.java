@@ -0,0 +1,382 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.CatalogImportError;
+import com.agricultecommerce.dto.CatalogImportResult;
+import com.agricultecommerce.entity.Category;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams a CSV or JSON Lines catalog into {@code products}, upserting by SKU. Rows are parsed
+ * one at a time and written in chunks: each chunk is one transaction that looks up existing
+ * SKUs and then issues one batched UPDATE and one batched INSERT (returning the new ids). Invalid rows are reported
+ * and skipped; a chunk that fails to write is reported row by row and the import moves on.
+ */
+@Service
+public class CatalogImportService {
+
+    static final List<String> COLUMNS = List.of("sku", "name", "description", "price", "stock", "category",
+            "brand", "unit", "origin", "imageUrl", "sourceUrl", "specifications");
+
+    private static final String UPDATE_SQL = "UPDATE products SET name = ?, description = ?, price = ?, stock = ?, " +
+            "category_id = ?, brand = ?, unit = ?, origin = ?, image_url = ?, source_url = ?, specifications = ?, updated_at = ? WHERE id = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO products (name, description, price, stock, category_id, " +
+            "brand, unit, origin, image_url, source_url, specifications, updated_at, sku) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${catalog.import.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Value("${catalog.import.max-reported-errors:1000}")
+    private int maxReportedErrors = 1000;
+
+    private TransactionTemplate transactionTemplate;
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Imports a CSV catalog. The first record is a header naming the columns, in any order;
+     * {@code sku}, {@code name}, {@code price}, {@code stock} and {@code category} are required.
+     */
+    public CatalogImportResult importCsv(InputStream body) throws IOException {
+        CsvReader csv = new CsvReader(reader(body));
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new BadRequestException("The catalog is empty");
+        }
+        List<String> columns = new ArrayList<>(header.size());
+        for (String name : header) {
+            columns.add(column(name.replace("\uFEFF", "").trim()));
+        }
+        for (String required : List.of("sku", "name", "price", "stock", "category")) {
+            if (!columns.contains(required)) {
+                throw new BadRequestException("Missing required column: " + required);
+            }
+        }
+
+        Import run = new Import();
+        while (true) {
+            List<String> record;
+            try {
+                record = csv.next();
+            } catch (IllegalArgumentException e) {
+                run.fail(csv.recordLine(), null, e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < Math.min(record.size(), columns.size()); i++) {
+                if (columns.get(i) != null) {
+                    fields.put(columns.get(i), record.get(i));
+                }
+            }
+            if (record.size() != columns.size()) {
+                run.fail(csv.recordLine(), fields.get("sku"), "Expected " + columns.size() + " fields but found " + record.size());
+                continue;
+            }
+            run.accept(csv.recordLine(), fields);
+        }
+        return run.finish();
+    }
+
+    /**
+     * Imports a JSON Lines catalog: one object per line with the same keys as the CSV columns.
+     */
+    public CatalogImportResult importJsonLines(InputStream body) throws IOException {
+        BufferedReader lines = reader(body);
+        Import run = new Import();
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException e) {
+                run.fail(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!node.isObject()) {
+                run.fail(lineNumber, null, "Expected a JSON object");
+                continue;
+            }
+            Map<String, String> fields = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> it = node.fields();
+            while (it.hasNext()) {
+                Map.Entry<String, JsonNode> field = it.next();
+                String column = column(field.getKey());
+                if (column != null && !field.getValue().isNull()) {
+                    fields.put(column, field.getValue().isValueNode() ? field.getValue().asText() : field.getValue().toString());
+                }
+            }
+            run.accept(lineNumber, fields);
+        }
+        return run.finish();
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static String column(String name) {
+        for (String column : COLUMNS) {
+            if (column.equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    private Map<String, Long> loadCategoryIds() {
+        Map<String, Long> categories = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories", rs -> {
+            categories.putIfAbsent(rs.getString("name").trim().toLowerCase(Locale.ROOT), rs.getLong("id"));
+        });
+        return categories;
+    }
+
+    private record Row(long line, Product product) {
+    }
+
+    /**
+     * State of one import: the pending chunk (keyed by SKU) and the running totals. A SKU that
+     * repeats within a chunk first writes the chunk, so the later row updates the product just
+     * as it would from another chunk and every row is counted.
+     */
+    private class Import {
+
+        private final Map<String, Long> categoryIds = loadCategoryIds();
+        private final Map<String, Row> chunk = new LinkedHashMap<>();
+        private final List<CatalogImportError> errors = new ArrayList<>();
+        private long rowsRead;
+        private long inserted;
+        private long updated;
+        private long failed;
+
+        void accept(long line, Map<String, String> fields) {
+            rowsRead++;
+            Product product;
+            try {
+                product = toProduct(fields);
+            } catch (IllegalArgumentException e) {
+                reject(line, blankToNull(fields.get("sku")), e.getMessage());
+                return;
+            }
+            if (chunk.containsKey(product.getSku())) {
+                writeChunk();
+            }
+            chunk.put(product.getSku(), new Row(line, product));
+            if (chunk.size() >= chunkSize) {
+                writeChunk();
+            }
+        }
+
+        /**
+         * Records a row that could not be read at all.
+         */
+        void fail(long line, String sku, String message) {
+            rowsRead++;
+            reject(line, sku, message);
+        }
+
+        private void reject(long line, String sku, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new CatalogImportError(line, sku, message));
+            }
+        }
+
+        CatalogImportResult finish() {
+            if (!chunk.isEmpty()) {
+                writeChunk();
+            }
+            return new CatalogImportResult(rowsRead, inserted, updated, failed, errors);
+        }
+
+        private Product toProduct(Map<String, String> fields) {
+            Product product = new Product();
+            product.setSku(required(fields, "sku", 64));
+            product.setName(required(fields, "name", 255));
+            product.setDescription(blankToNull(fields.get("description")));
+            try {
+                product.setPrice(new BigDecimal(required(fields, "price", 64)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid price: " + fields.get("price"));
+            }
+            if (product.getPrice().signum() < 0) {
+                throw new IllegalArgumentException("Price must not be negative");
+            }
+            try {
+                product.setStock(Integer.parseInt(required(fields, "stock", 11)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid stock: " + fields.get("stock"));
+            }
+            if (product.getStock() < 0) {
+                throw new IllegalArgumentException("Stock must not be negative");
+            }
+            String categoryName = required(fields, "category", 255);
+            Long categoryId = categoryIds.get(categoryName.toLowerCase(Locale.ROOT));
+            if (categoryId == null) {
+                throw new IllegalArgumentException("Unknown category: " + categoryName);
+            }
+            product.setCategory(new Category(categoryId, categoryName, null));
+            product.setBrand(optional(fields, "brand", 255));
+            product.setUnit(optional(fields, "unit", 255));
+            product.setOrigin(optional(fields, "origin", 255));
+            product.setImageUrl(optional(fields, "imageUrl", 255));
+            product.setSourceUrl(optional(fields, "sourceUrl", 500));
+            product.setSpecifications(blankToNull(fields.get("specifications")));
+            return product;
+        }
+
+        private void writeChunk() {
+            List<Row> rows = new ArrayList<>(chunk.values());
+            chunk.clear();
+            int[] counts;
+            try {
+                counts = transactionTemplate.execute(status -> upsert(rows));
+            } catch (DataAccessException | TransactionException e) {
+                String message = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                rows.forEach(row -> reject(row.line(), row.product().getSku(), message));
+                return;
+            }
+            inserted += counts[0];
+            updated += counts[1];
+            productService.productsImported(rows.stream().map(Row::product).toList());
+        }
+
+        // Returns the number of rows inserted and updated
+        private int[] upsert(List<Row> rows) {
+            Map<String, Long> existing = idsBySku(rows);
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            List<Product> insertedProducts = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            for (Row row : rows) {
+                Product p = row.product();
+                Long id = existing.get(p.getSku());
+                p.setUpdatedAt(now);
+                Object[] values = {p.getName(), p.getDescription(), p.getPrice(), p.getStock(), p.getCategory().getId(),
+                        p.getBrand(), p.getUnit(), p.getOrigin(), p.getImageUrl(), p.getSourceUrl(), p.getSpecifications(), now,
+                        id != null ? id : p.getSku()};
+                if (id != null) {
+                    p.setId(id);
+                    updates.add(values);
+                } else {
+                    insertedProducts.add(p);
+                    inserts.add(values);
+                }
+            }
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+            if (!inserts.isEmpty()) {
+                // Generated ids come back in insert order, which saves a second lookup by SKU
+                KeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                                new ArgumentPreparedStatementSetter(inserts.get(i)).setValues(statement);
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return inserts.size();
+                            }
+                        }, keys);
+                List<Map<String, Object>> generated = keys.getKeyList();
+                for (int i = 0; i < insertedProducts.size(); i++) {
+                    insertedProducts.get(i).setId(((Number) generated.get(i).values().iterator().next()).longValue());
+                }
+            }
+            return new int[]{inserts.size(), updates.size()};
+        }
+
+        private Map<String, Long> idsBySku(List<Row> rows) {
+            List<String> skus = rows.stream().map(row -> row.product().getSku()).toList();
+            Map<String, Long> ids = new HashMap<>();
+            namedJdbcTemplate.query("SELECT id, sku FROM products WHERE sku IN (:skus)",
+                    new MapSqlParameterSource("skus", skus), rs -> {
+                        ids.put(rs.getString("sku"), rs.getLong("id"));
+                    });
+            return ids;
+        }
+    }
+
+    private static String required(Map<String, String> fields, String column, int maxLength) {
+        String value = optional(fields, column, maxLength);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+
+    private static String optional(Map<String, String> fields, String column, int maxLength) {
+        String value = blankToNull(fields.get(column));
+        if (value != null && value.length() > maxLength) {
+            throw new IllegalArgumentException(column + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -3,28 +3,63 @@ package com.agricultecommerce.service;
 import com.agricultecommerce.entity.Category;
 import com.agricultecommerce.exception.ResourceNotFoundException;
 import com.agricultecommerce.repository.CategoryRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class CategoryService {
 
+    private static final String ALL = "all";
+
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Value("${catalog.cache.categories.max-entries:500}")
+    private int categoryCacheSize;
+
+    private LruCache<String, List<Category>> allCategories;
+
+    private LruCache<Long, Category> categoriesById;
+
+    @PostConstruct
+    void initCaches() {
+        // Cached categories are detached copies, handed out as copies
+        allCategories = new LruCache<String, List<Category>>("categoryList", 1)
+                .copyWith(categories -> categories.stream().map(Category::new).toList());
+        categoriesById = new LruCache<Long, Category>("categoriesById", categoryCacheSize).copyWith(Category::new);
+    }
+
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return allCategories.get(ALL, key -> categoryRepository.findAll());
     }
 
     public Optional<Category> getCategoryById(Long id) {
-        return categoryRepository.findById(id);
+        return Optional.ofNullable(categoriesById.get(id, key -> categoryRepository.findById(key).orElse(null)));
     }
 
     public Category saveCategory(Category category) {
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        allCategories.invalidateAll();
+        categoriesById.invalidate(saved.getId());
+        productService.evictCategory(saved.getId(), false);
+        productFacetIndex.renameCategory(saved.getId(), saved.getName());
+        productSuggester.renameCategory(saved.getId(), saved.getName());
+        return saved;
     }
 
     public void deleteCategory(Long id) {
@@ -32,5 +67,12 @@ public class CategoryService {
             throw new ResourceNotFoundException("Category not found");
         }
         categoryRepository.deleteById(id);
+        allCategories.invalidateAll();
+        categoriesById.invalidate(id);
+        productService.evictCategory(id, true);
+    }
+
+    public List<Map<String, Object>> cacheStats() {
+        return List.of(allCategories.stats(), categoriesById.stats());
     }
 }
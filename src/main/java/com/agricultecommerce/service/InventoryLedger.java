@@ -0,0 +1,194 @@
+package com.agricultecommerce.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory available-stock counters that let checkout and the cart turn away a shortage
+ * without touching the database. A multi-line reservation locks only the stripes its products
+ * hash to (in stripe order, so reservations cannot deadlock) and either takes every line or
+ * none. {@code products.stock} stays the authority: checkout decrements it conditionally in
+ * its own transaction, and a scheduled flush tells read caches which products have changed.
+ * Counts are restored from {@code products.stock} on startup.
+ */
+@Component
+public class InventoryLedger {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired(required = false)
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, AtomicInteger> available = new ConcurrentHashMap<>();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public InventoryLedger() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Map<Long, Integer> stock = new HashMap<>();
+        jdbcTemplate.query("SELECT id, stock FROM products", rs -> {
+            stock.put(rs.getLong("id"), rs.getInt("stock"));
+        });
+        restore(stock);
+    }
+
+    void restore(Map<Long, Integer> stock) {
+        available.clear();
+        changed.clear();
+        stock.forEach((id, count) -> available.put(id, new AtomicInteger(count)));
+    }
+
+    public int available(Long productId) {
+        return counter(productId).get();
+    }
+
+    /**
+     * Sets the authoritative count for a product, e.g. after an admin edit.
+     */
+    public void set(Long productId, int stock) {
+        ReentrantLock lock = stripes[stripe(productId)];
+        lock.lock();
+        try {
+            available.computeIfAbsent(productId, id -> new AtomicInteger()).set(stock);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        available.remove(productId);
+        changed.remove(productId);
+    }
+
+    /**
+     * Drops the counts for products the database turned out to hold less of, so the next read
+     * reloads them from {@code products.stock}.
+     */
+    public void resync(Collection<Long> productIds) {
+        productIds.forEach(available::remove);
+    }
+
+    /**
+     * Atomically reserves every line or none of them. Returns the ids of the products that lack
+     * stock; an empty list means the reservation succeeded. Inside a transaction the
+     * reservation is released on rollback.
+     */
+    public List<Long> reserve(Map<Long, Integer> lines) {
+        int[] lockOrder = lines.keySet().stream().mapToInt(InventoryLedger::stripe).distinct().sorted().toArray();
+        List<Long> shortages = new ArrayList<>();
+
+        // Load counters before locking: a cold load queries the database
+        Map<Long, AtomicInteger> counters = new HashMap<>();
+        lines.keySet().forEach(id -> counters.put(id, counter(id)));
+
+        for (int stripe : lockOrder) {
+            stripes[stripe].lock();
+        }
+        try {
+            lines.forEach((id, quantity) -> {
+                if (counters.get(id).get() < quantity) {
+                    shortages.add(id);
+                }
+            });
+            if (shortages.isEmpty()) {
+                lines.forEach((id, quantity) -> counters.get(id).addAndGet(-quantity));
+            }
+        } finally {
+            for (int i = lockOrder.length - 1; i >= 0; i--) {
+                stripes[lockOrder[i]].unlock();
+            }
+        }
+
+        if (shortages.isEmpty()) {
+            afterReservation(Map.copyOf(lines));
+        }
+        return shortages;
+    }
+
+    public void release(Map<Long, Integer> lines) {
+        lines.forEach((id, quantity) -> {
+            AtomicInteger counter = available.get(id);
+            if (counter != null) {
+                counter.addAndGet(quantity);
+            }
+        });
+    }
+
+    /**
+     * Publishes the products whose stock was committed since the last flush, batching cache
+     * evictions rather than evicting on every checkout.
+     */
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:200}")
+    public void flush() {
+        List<Long> ids = new ArrayList<>();
+        for (Long id : changed) {
+            if (changed.remove(id)) {
+                ids.add(id);
+            }
+        }
+        if (!ids.isEmpty() && eventPublisher != null) {
+            eventPublisher.publishEvent(new ProductStockFlushedEvent(ids));
+        }
+    }
+
+    int changedCount() {
+        return changed.size();
+    }
+
+    private void afterReservation(Map<Long, Integer> lines) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changed.addAll(lines.keySet());
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    changed.addAll(lines.keySet());
+                } else {
+                    release(lines);
+                }
+            }
+        });
+    }
+
+    private AtomicInteger counter(Long productId) {
+        AtomicInteger counter = available.get(productId);
+        if (counter != null) {
+            return counter;
+        }
+        List<Integer> stock = jdbcTemplate.queryForList("SELECT stock FROM products WHERE id = ?", Integer.class, productId);
+        return available.computeIfAbsent(productId, id -> new AtomicInteger(stock.isEmpty() ? 0 : stock.get(0)));
+    }
+
+    private static int stripe(Long productId) {
+        int h = productId.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
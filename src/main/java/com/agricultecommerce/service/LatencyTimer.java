@@ -0,0 +1,97 @@
+package com.agricultecommerce.service;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency timer for one route or method. Recording is wait-free: counters are striped
+ * {@link LongAdder}s and latencies go into an HdrHistogram {@link Recorder}. Percentiles
+ * cover a sliding window of interval histograms that the registry rotates on a schedule;
+ * count, error count and total time are cumulative.
+ */
+public class LatencyTimer {
+
+    // Microsecond resolution, up to a minute, three significant digits
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String name;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final Recorder recorder = new Recorder(MAX_MICROS, 3);
+    private final Histogram[] slots;
+    private Histogram interval;
+    private int current;
+
+    public LatencyTimer(String name, int windowSlots) {
+        this.name = name;
+        this.slots = new Histogram[windowSlots];
+        for (int i = 0; i < windowSlots; i++) {
+            slots[i] = new Histogram(MAX_MICROS, 3);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos, boolean error) {
+        count.increment();
+        totalNanos.add(nanos);
+        if (error) {
+            errors.increment();
+        }
+        recorder.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1), MAX_MICROS));
+    }
+
+    /**
+     * Moves to the next window slot, dropping the oldest one.
+     */
+    synchronized void rotate() {
+        drain();
+        current = (current + 1) % slots.length;
+        slots[current].reset();
+    }
+
+    public synchronized Snapshot snapshot() {
+        drain();
+        Histogram window = new Histogram(MAX_MICROS, 3);
+        for (Histogram slot : slots) {
+            window.add(slot);
+        }
+        return new Snapshot(name, count.sum(), errors.sum(), totalNanos.sum() / 1e9,
+                percentileSeconds(window, 50), percentileSeconds(window, 95), percentileSeconds(window, 99),
+                window.getTotalCount() == 0 ? 0.0 : window.getMaxValue() / 1e6);
+    }
+
+    private void drain() {
+        interval = recorder.getIntervalHistogram(interval);
+        slots[current].add(interval);
+    }
+
+    private static double percentileSeconds(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0.0 : histogram.getValueAtPercentile(percentile) / 1e6;
+    }
+
+    public record Snapshot(String name, long count, long errors, double sumSeconds,
+                           double p50Seconds, double p95Seconds, double p99Seconds, double maxSeconds) {
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("name", name);
+            map.put("count", count);
+            map.put("errors", errors);
+            map.put("sumSeconds", sumSeconds);
+            map.put("p50Seconds", p50Seconds);
+            map.put("p95Seconds", p95Seconds);
+            map.put("p99Seconds", p99Seconds);
+            map.put("maxSeconds", maxSeconds);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.agricultecommerce.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Size-bounded, least-recently-used read-through cache with hit/miss/eviction counters and
+ * optional expiry. Loads run outside the lock; a load that races with an invalidation of its
+ * key (or with a matching {@link #invalidateIf}) is not stored, so an invalidated value can
+ * never be re-inserted by a slow reader, while loads of other keys are unaffected.
+ *
+ * <p>Expiry and copying are configured with {@link #expireAfterWrite}, {@link #expireAt} and
+ * {@link #copyWith} right after construction, before the cache is shared.
+ */
+public class LruCache<K, V> {
+
+    private static final int MAX_PENDING_PREDICATES = 64;
+
+    private final String name;
+    private final int capacity;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    // The latest in-flight load per key; invalidating the key cancels it
+    private final Map<K, Load> loads = new HashMap<>();
+    // invalidateIf predicates that loads started before them must still be checked against
+    private final Deque<PendingPredicate<V>> predicates = new ArrayDeque<>();
+    private long sequence;
+
+    private ToLongFunction<V> expiresAt = value -> Long.MAX_VALUE;
+    private UnaryOperator<V> copier = UnaryOperator.identity();
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Load {
+        final long startedAt;
+
+        Load(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    private record PendingPredicate<V>(long sequence, Predicate<V> predicate) {
+    }
+
+    public LruCache(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > LruCache.this.capacity) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Entries expire the given number of milliseconds after they were stored.
+     */
+    public LruCache<K, V> expireAfterWrite(long ttlMillis) {
+        this.expiresAt = value -> System.currentTimeMillis() + ttlMillis;
+        return this;
+    }
+
+    /**
+     * Entries expire at the epoch millisecond the function returns for their value.
+     */
+    public LruCache<K, V> expireAt(ToLongFunction<V> expiresAt) {
+        this.expiresAt = expiresAt;
+        return this;
+    }
+
+    /**
+     * The cache stores a copy of every loaded value and hands out a copy on every hit, so
+     * callers can never change what other callers read.
+     */
+    public LruCache<K, V> copyWith(UnaryOperator<V> copier) {
+        this.copier = copier;
+        return this;
+    }
+
+    /**
+     * Returns the cached value or loads, caches and returns it. A {@code null} load result is
+     * returned but not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        Load load;
+        synchronized (this) {
+            V value = live(key);
+            if (value != null) {
+                hits.incrementAndGet();
+                return copier.apply(value);
+            }
+            load = new Load(sequence);
+            loads.put(key, load);
+        }
+        misses.incrementAndGet();
+        V loaded = null;
+        try {
+            loaded = loader.apply(key);
+        } finally {
+            finishLoad(key, load, loaded);
+        }
+        return loaded;
+    }
+
+    public synchronized V peek(K key) {
+        V value = live(key);
+        return value == null ? null : copier.apply(value);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void invalidate(K key) {
+        loads.remove(key);
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateIf(Predicate<V> predicate) {
+        sequence++;
+        if (!loads.isEmpty()) {
+            predicates.addLast(new PendingPredicate<>(sequence, predicate));
+            prunePredicates();
+        }
+        Iterator<Entry<V>> it = entries.values().iterator();
+        while (it.hasNext()) {
+            if (predicate.test(it.next().value())) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        loads.clear();
+        predicates.clear();
+        entries.clear();
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+        return Map.of(
+            "name", name,
+            "size", entries.size(),
+            "capacity", capacity,
+            "hits", hitCount,
+            "misses", missCount,
+            "evictions", evictions.get(),
+            "expirations", expirations.get(),
+            "hitRate", requests == 0 ? 0.0 : (double) hitCount / requests
+        );
+    }
+
+    private V live(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            return null;
+        }
+        return entry.value();
+    }
+
+    private synchronized void finishLoad(K key, Load load, V loaded) {
+        if (loads.get(key) != load) {
+            // Invalidated, or superseded by a later load of the same key
+            return;
+        }
+        loads.remove(key);
+        if (loaded != null && !matchesPredicateSince(load.startedAt, loaded)) {
+            V stored = copier.apply(loaded);
+            long deadline = expiresAt.applyAsLong(stored);
+            if (deadline > System.currentTimeMillis()) {
+                entries.put(key, new Entry<>(stored, deadline));
+            }
+        }
+        if (loads.isEmpty()) {
+            predicates.clear();
+        }
+    }
+
+    private boolean matchesPredicateSince(long startedAt, V value) {
+        for (PendingPredicate<V> pending : predicates) {
+            if (pending.sequence() > startedAt && pending.predicate().test(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Drops predicates every in-flight load started after; if too many are pending, the loads
+    // that started before the oldest of them are cancelled instead of checked
+    private void prunePredicates() {
+        long oldest = Long.MAX_VALUE;
+        for (Load load : loads.values()) {
+            oldest = Math.min(oldest, load.startedAt);
+        }
+        while (!predicates.isEmpty() && predicates.peekFirst().sequence() <= oldest) {
+            predicates.removeFirst();
+        }
+        if (predicates.size() > MAX_PENDING_PREDICATES) {
+            PendingPredicate<V> dropped = predicates.removeFirst();
+            loads.values().removeIf(load -> load.startedAt < dropped.sequence());
+        }
+    }
+}
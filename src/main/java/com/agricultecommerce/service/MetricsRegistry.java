@@ -0,0 +1,117 @@
+package com.agricultecommerce.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency timers for controller routes, repository methods, the JWT filter and order event
+ * delivery. Timers are created on first use and looked up by name; callers on hot paths keep
+ * the returned timer.
+ * Percentiles cover the last {@code metrics.window-slots} x {@code metrics.slot-ms}.
+ */
+@Component
+public class MetricsRegistry {
+
+    public enum Family {
+        HTTP("http_server_requests", "route", "Controller requests by method and route pattern"),
+        REPOSITORY("repository_calls", "method", "Repository method calls"),
+        JWT_FILTER("jwt_filter", "stage", "JWT request filter"),
+        ORDER_EVENT_HANDLERS("order_event_handlers", "handler", "Order event handler calls"),
+        ORDER_EVENT_LAG("order_event_lag", "type", "Time from writing an order event to delivering it");
+
+        private final String metric;
+        private final String label;
+        private final String help;
+
+        Family(String metric, String label, String help) {
+            this.metric = metric;
+            this.label = label;
+            this.help = help;
+        }
+    }
+
+    @Value("${metrics.window-slots:6}")
+    private int windowSlots = 6;
+
+    private final Map<Family, Map<String, LatencyTimer>> timers = new EnumMap<>(Family.class);
+
+    public MetricsRegistry() {
+        for (Family family : Family.values()) {
+            timers.put(family, new ConcurrentHashMap<>());
+        }
+    }
+
+    public LatencyTimer timer(Family family, String name) {
+        Map<String, LatencyTimer> byName = timers.get(family);
+        LatencyTimer timer = byName.get(name);
+        return timer != null ? timer : byName.computeIfAbsent(name, n -> new LatencyTimer(n, windowSlots));
+    }
+
+    @Scheduled(fixedRateString = "${metrics.slot-ms:10000}")
+    public void rotate() {
+        timers.values().forEach(byName -> byName.values().forEach(LatencyTimer::rotate));
+    }
+
+    public Map<String, List<Map<String, Object>>> snapshot() {
+        Map<String, List<Map<String, Object>>> result = new LinkedHashMap<>();
+        for (Family family : Family.values()) {
+            result.put(family.metric, snapshots(family).stream().map(LatencyTimer.Snapshot::toMap).toList());
+        }
+        return result;
+    }
+
+    /**
+     * Renders every timer as a Prometheus summary plus an errors counter (text format 0.0.4).
+     */
+    public String prometheus() {
+        StringBuilder out = new StringBuilder();
+        for (Family family : Family.values()) {
+            List<LatencyTimer.Snapshot> snapshots = snapshots(family);
+            String seconds = family.metric + "_seconds";
+            String errors = family.metric + "_errors_total";
+            out.append("# HELP ").append(seconds).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(seconds).append(" summary\n");
+            for (LatencyTimer.Snapshot s : snapshots) {
+                String label = family.label + "=\"" + escape(s.name()) + "\"";
+                sample(out, seconds, label + ",quantile=\"0.5\"", s.p50Seconds());
+                sample(out, seconds, label + ",quantile=\"0.95\"", s.p95Seconds());
+                sample(out, seconds, label + ",quantile=\"0.99\"", s.p99Seconds());
+                sample(out, seconds + "_count", label, s.count());
+                sample(out, seconds + "_sum", label, s.sumSeconds());
+            }
+            out.append("# HELP ").append(errors).append(' ').append(family.help).append(" that failed\n");
+            out.append("# TYPE ").append(errors).append(" counter\n");
+            for (LatencyTimer.Snapshot s : snapshots) {
+                sample(out, errors, family.label + "=\"" + escape(s.name()) + "\"", s.errors());
+            }
+        }
+        return out.toString();
+    }
+
+    private List<LatencyTimer.Snapshot> snapshots(Family family) {
+        List<LatencyTimer.Snapshot> snapshots = new ArrayList<>();
+        timers.get(family).values().forEach(timer -> snapshots.add(timer.snapshot()));
+        snapshots.sort((a, b) -> a.name().compareTo(b.name()));
+        return snapshots;
+    }
+
+    private static void sample(StringBuilder out, String metric, String labels, double value) {
+        out.append(metric).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String metric, String labels, long value) {
+        out.append(metric).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
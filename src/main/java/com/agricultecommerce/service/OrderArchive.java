@@ -0,0 +1,376 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.entity.OrderItem;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archived orders on local disk, one gzipped file per order month. Each file is laid out by
+ * column: all order ids, then all user ids, dates and so on, then the item columns, which
+ * keeps like values together for the compressor. A write adds a numbered segment file next
+ * to the month file instead of rewriting it, so a batch costs only its own rows; reads merge
+ * the month file with its segments, and {@link #compact} folds the segments into the month
+ * file once per archiver run. Files appear through a temp file and an atomic move and are
+ * read whole; parsed months are kept in an LRU cache.
+ */
+@Component
+public class OrderArchive {
+
+    private static final int MAGIC = 0x4f415243;
+    private static final int VERSION = 1;
+    private static final String SEGMENT_SUFFIX = ".seg.gz";
+
+    @Value("${orders.archive.dir:archive/orders}")
+    private String archiveDir = "archive/orders";
+
+    @Value("${orders.archive.cache-months:12}")
+    private int cacheMonths = 12;
+
+    private Path directory;
+    private LruCache<YearMonth, Map<Long, ArchivedRow>> months;
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        directory = Paths.get(archiveDir).toAbsolutePath().normalize();
+        months = new LruCache<>("archivedOrderMonths", cacheMonths);
+    }
+
+    /**
+     * Adds orders to their months as new segment files; an order already archived is replaced
+     * by the later copy, so writing the same batch twice is harmless.
+     */
+    synchronized void write(Collection<ArchivedRow> rows) throws IOException {
+        Files.createDirectories(directory);
+        Map<YearMonth, Map<Long, ArchivedRow>> byMonth = new TreeMap<>();
+        rows.forEach(row -> byMonth.computeIfAbsent(YearMonth.from(row.orderDate()), m -> new TreeMap<>()).put(row.id(), row));
+        for (Map.Entry<YearMonth, Map<Long, ArchivedRow>> month : byMonth.entrySet()) {
+            List<Path> segments = segments(month.getKey());
+            int next = segments.isEmpty() ? 1 : segmentNumber(segments.get(segments.size() - 1)) + 1;
+            replace(directory.resolve("orders-" + month.getKey() + "." + next + SEGMENT_SUFFIX), month.getValue().values());
+            months.invalidate(month.getKey());
+        }
+    }
+
+    /**
+     * Folds every month's segment files into its month file. The month file is replaced before
+     * the segments are deleted, so a failure in between leaves rows that are merely stored twice.
+     */
+    synchronized void compact() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        Set<YearMonth> segmented = new TreeSet<>();
+        try (var files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> segmented.add(YearMonth.parse(name.substring("orders-".length(), name.indexOf('.')))));
+        }
+        for (YearMonth month : segmented) {
+            List<Path> segments = segments(month);
+            replace(file(month), readMonth(month).values());
+            for (Path segment : segments) {
+                Files.delete(segment);
+            }
+            months.invalidate(month);
+        }
+    }
+
+    /**
+     * Rebuilds archived orders, keyed by id, from their ids and order dates. Items carry the
+     * product's id, SKU and name as they were when the order was archived.
+     */
+    public Map<Long, Order> load(Map<Long, LocalDateTime> orderDates) {
+        Map<Long, Order> orders = new HashMap<>();
+        orderDates.forEach((id, orderDate) -> {
+            ArchivedRow row = month(YearMonth.from(orderDate)).get(id);
+            if (row != null) {
+                orders.put(id, row.toOrder());
+            }
+        });
+        return orders;
+    }
+
+    int monthFileCount() throws IOException {
+        return countFiles(".bin.gz");
+    }
+
+    int segmentFileCount() throws IOException {
+        return countFiles(SEGMENT_SUFFIX);
+    }
+
+    long rowsWritten() {
+        return rowsWritten.get();
+    }
+
+    private int countFiles(String suffix) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        try (var files = Files.list(directory)) {
+            return (int) files.filter(path -> path.getFileName().toString().endsWith(suffix)).count();
+        }
+    }
+
+    private Map<Long, ArchivedRow> month(YearMonth month) {
+        return months.get(month, m -> {
+            try {
+                return readMonth(m);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Synchronized with write and compact, which add and remove the files being listed
+    private synchronized Map<Long, ArchivedRow> readMonth(YearMonth month) throws IOException {
+        Map<Long, ArchivedRow> rows = new TreeMap<>(read(file(month)));
+        for (Path segment : segments(month)) {
+            rows.putAll(read(segment));
+        }
+        return rows;
+    }
+
+    private Path file(YearMonth month) {
+        return directory.resolve("orders-" + month + ".bin.gz");
+    }
+
+    // In the order they were written, so later copies of an order win
+    private List<Path> segments(YearMonth month) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String prefix = "orders-" + month + ".";
+        try (var files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparingInt(OrderArchive::segmentNumber))
+                    .toList();
+        }
+    }
+
+    private static int segmentNumber(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(name.indexOf('.') + 1, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void replace(Path target, Collection<ArchivedRow> rows) throws IOException {
+        Path temp = Files.createTempFile(directory, "orders-", ".tmp");
+        try {
+            writeFile(temp, rows);
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        rowsWritten.addAndGet(rows.size());
+    }
+
+    private static void writeFile(Path path, Collection<ArchivedRow> rows) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(path))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(rows.size());
+            long previousId = 0;
+            for (ArchivedRow row : rows) {
+                // Ids are ascending, so deltas stay small
+                out.writeLong(row.id() - previousId);
+                previousId = row.id();
+            }
+            for (ArchivedRow row : rows) {
+                out.writeLong(row.userId());
+            }
+            for (ArchivedRow row : rows) {
+                out.writeLong(row.orderDate().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(row.orderDate().getNano());
+            }
+            for (ArchivedRow row : rows) {
+                out.writeUTF(row.status());
+            }
+            for (ArchivedRow row : rows) {
+                out.writeUTF(row.totalAmount().toPlainString());
+            }
+            for (ArchivedRow row : rows) {
+                out.writeUTF(row.shippingAddress());
+            }
+            for (ArchivedRow row : rows) {
+                out.writeInt(row.items().size());
+            }
+
+            List<ArchivedItem> items = rows.stream().flatMap(row -> row.items().stream()).toList();
+            for (ArchivedItem item : items) {
+                out.writeLong(item.id());
+            }
+            for (ArchivedItem item : items) {
+                out.writeLong(item.productId());
+            }
+            for (ArchivedItem item : items) {
+                writeNullable(out, item.sku());
+            }
+            for (ArchivedItem item : items) {
+                out.writeUTF(item.productName());
+            }
+            for (ArchivedItem item : items) {
+                out.writeInt(item.quantity());
+            }
+            for (ArchivedItem item : items) {
+                out.writeUTF(item.price().toPlainString());
+            }
+        }
+    }
+
+    private static Map<Long, ArchivedRow> read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return Map.of();
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not an order archive file: " + path);
+            }
+            int n = in.readInt();
+            long[] ids = new long[n];
+            long previousId = 0;
+            for (int i = 0; i < n; i++) {
+                previousId += in.readLong();
+                ids[i] = previousId;
+            }
+            long[] userIds = new long[n];
+            for (int i = 0; i < n; i++) {
+                userIds[i] = in.readLong();
+            }
+            LocalDateTime[] dates = new LocalDateTime[n];
+            for (int i = 0; i < n; i++) {
+                dates[i] = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            }
+            String[] statuses = new String[n];
+            for (int i = 0; i < n; i++) {
+                statuses[i] = in.readUTF();
+            }
+            BigDecimal[] totals = new BigDecimal[n];
+            for (int i = 0; i < n; i++) {
+                totals[i] = new BigDecimal(in.readUTF());
+            }
+            String[] addresses = new String[n];
+            for (int i = 0; i < n; i++) {
+                addresses[i] = in.readUTF();
+            }
+            int[] itemCounts = new int[n];
+            int m = 0;
+            for (int i = 0; i < n; i++) {
+                itemCounts[i] = in.readInt();
+                m += itemCounts[i];
+            }
+
+            long[] itemIds = new long[m];
+            for (int i = 0; i < m; i++) {
+                itemIds[i] = in.readLong();
+            }
+            long[] productIds = new long[m];
+            for (int i = 0; i < m; i++) {
+                productIds[i] = in.readLong();
+            }
+            String[] skus = new String[m];
+            for (int i = 0; i < m; i++) {
+                skus[i] = readNullable(in);
+            }
+            String[] names = new String[m];
+            for (int i = 0; i < m; i++) {
+                names[i] = in.readUTF();
+            }
+            int[] quantities = new int[m];
+            for (int i = 0; i < m; i++) {
+                quantities[i] = in.readInt();
+            }
+            BigDecimal[] prices = new BigDecimal[m];
+            for (int i = 0; i < m; i++) {
+                prices[i] = new BigDecimal(in.readUTF());
+            }
+
+            Map<Long, ArchivedRow> rows = new TreeMap<>();
+            int item = 0;
+            for (int i = 0; i < n; i++) {
+                List<ArchivedItem> orderItems = new ArrayList<>(itemCounts[i]);
+                for (int j = 0; j < itemCounts[i]; j++, item++) {
+                    orderItems.add(new ArchivedItem(itemIds[item], productIds[item], skus[item], names[item],
+                            quantities[item], prices[item]));
+                }
+                rows.put(ids[i], new ArchivedRow(ids[i], userIds[i], dates[i], statuses[i], totals[i], addresses[i], orderItems));
+            }
+            return rows;
+        }
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    record ArchivedRow(long id, long userId, LocalDateTime orderDate, String status, BigDecimal totalAmount,
+                       String shippingAddress, List<ArchivedItem> items) {
+
+        Order toOrder() {
+            User user = new User();
+            user.setId(userId);
+            Order order = new Order(id, user, orderDate, totalAmount, Order.Status.valueOf(status));
+            order.setShippingAddress(shippingAddress);
+            order.setOrderItems(new LinkedHashSet<>());
+            for (ArchivedItem item : items) {
+                Product product = new Product(item.productId(), item.productName(), null, null, null);
+                product.setSku(item.sku());
+                order.getOrderItems().add(new OrderItem(item.id(), order, product, item.quantity(), item.price()));
+            }
+            return order;
+        }
+    }
+
+    record ArchivedItem(long id, long productId, String sku, String productName, int quantity, BigDecimal price) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves DELIVERED and CANCELLED orders older than {@code orders.archive.min-age-days} out of
+ * {@code orders}/{@code order_items} into the {@link OrderArchive} files, leaving an
+ * {@code archived_orders} index row for each. A batch is locked, written to segment files of
+ * its months, indexed and deleted in one transaction; if the transaction fails the files merely
+ * hold rows nothing points at, which the next run overwrites. Once all batches are done the
+ * segments are compacted, so each month file is rewritten at most once per run.
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    private static final List<String> ARCHIVED_STATUSES = List.of(Order.Status.DELIVERED.name(), Order.Status.CANCELLED.name());
+
+    // Plain JDBC, like the other background writers, so the persistence context stays out of it
+    private static final String CANDIDATES_SQL = "SELECT id FROM orders WHERE status IN (:statuses) AND order_date < :cutoff " +
+            "ORDER BY order_date, id LIMIT :limit FOR UPDATE";
+
+    private static final String ORDERS_SQL = "SELECT id, user_id, order_date, status, total_amount, shipping_address " +
+            "FROM orders WHERE id IN (:ids) ORDER BY id";
+
+    private static final String ITEMS_SQL = "SELECT i.id, i.order_id, i.product_id, p.sku, p.name, i.quantity, i.price " +
+            "FROM order_items i JOIN products p ON p.id = i.product_id WHERE i.order_id IN (:ids) ORDER BY i.order_id, i.id";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Value("${orders.archive.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${orders.archive.min-age-days:365}")
+    private int minAgeDays = 365;
+
+    @Value("${orders.archive.batch-size:500}")
+    private int batchSize = 500;
+
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms:3600000}",
+            initialDelayString = "${orders.archive.interval-ms:3600000}")
+    public void run() {
+        if (enabled) {
+            int archived = archive();
+            if (archived > 0) {
+                log.info("Archived {} orders older than {} days", archived, minAgeDays);
+            }
+        }
+    }
+
+    /**
+     * Archives every eligible order, a batch at a time, and returns how many were moved.
+     */
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(minAgeDays);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (true) {
+            Integer archived = transaction.execute(status -> archiveBatch(cutoff));
+            total += archived;
+            if (archived < batchSize) {
+                break;
+            }
+        }
+        try {
+            orderArchive.compact();
+        } catch (IOException e) {
+            // Reads merge segments too; the next run compacts them
+            log.warn("Could not compact the order archive: {}", e.getMessage());
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = jdbcTemplate.queryForList(CANDIDATES_SQL, new MapSqlParameterSource()
+                .addValue("statuses", ARCHIVED_STATUSES)
+                .addValue("cutoff", Timestamp.valueOf(cutoff))
+                .addValue("limit", batchSize), Long.class);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource byIds = new MapSqlParameterSource("ids", ids);
+
+        Map<Long, List<OrderArchive.ArchivedItem>> items = new LinkedHashMap<>();
+        jdbcTemplate.query(ITEMS_SQL, byIds, rs -> {
+            items.computeIfAbsent(rs.getLong("order_id"), id -> new ArrayList<>()).add(new OrderArchive.ArchivedItem(
+                    rs.getLong("id"), rs.getLong("product_id"), rs.getString("sku"), rs.getString("name"),
+                    rs.getInt("quantity"), rs.getBigDecimal("price")));
+        });
+        List<OrderArchive.ArchivedRow> rows = jdbcTemplate.query(ORDERS_SQL, byIds, (rs, i) -> new OrderArchive.ArchivedRow(
+                rs.getLong("id"), rs.getLong("user_id"), rs.getTimestamp("order_date").toLocalDateTime(),
+                rs.getString("status"), rs.getBigDecimal("total_amount"), rs.getString("shipping_address"),
+                items.getOrDefault(rs.getLong("id"), List.of())));
+
+        try {
+            orderArchive.write(rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("INSERT INTO archived_orders (id, user_id, order_date, archived_at) " +
+                        "VALUES (:id, :userId, :orderDate, :archivedAt)",
+                rows.stream().map(row -> new MapSqlParameterSource()
+                        .addValue("id", row.id())
+                        .addValue("userId", row.userId())
+                        .addValue("orderDate", Timestamp.valueOf(row.orderDate()))
+                        .addValue("archivedAt", now)).toArray(MapSqlParameterSource[]::new));
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (:ids)", byIds);
+        jdbcTemplate.update("DELETE FROM orders WHERE id IN (:ids)", byIds);
+        return ids.size();
+    }
+}
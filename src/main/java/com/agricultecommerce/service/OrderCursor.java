@@ -0,0 +1,53 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque position token for order history and admin queue paging: the order date and id of
+ * the last order on the previous page.
+ */
+final class OrderCursor {
+
+    private final LocalDateTime orderDate;
+    private final Long id;
+
+    private OrderCursor(LocalDateTime orderDate, Long id) {
+        this.orderDate = orderDate;
+        this.id = id;
+    }
+
+    static OrderCursor after(LocalDateTime orderDate, Long id) {
+        return new OrderCursor(orderDate, id);
+    }
+
+    LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    String encode() {
+        String raw = orderDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length == 2) {
+                return new OrderCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // fall through to the common error below
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+}
@@ -0,0 +1,184 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.entity.OrderEvent;
+import com.agricultecommerce.repository.OrderEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drains the {@code order_events} outbox to the registered {@link OrderEventHandler}s.
+ * Each run pulls at most {@code batch-size} events at a time and stops after
+ * {@code max-batches-per-run}, so a backlog is worked off at the dispatcher's pace while
+ * checkout only ever pays for one insert. Events of one order are delivered in order.
+ * Rows are not claimed, so one dispatcher per database is assumed, as for the other
+ * in-memory state of this application.
+ */
+@Component
+public class OrderEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    // Polled with plain JDBC, like the other background writers, so the persistence context stays out of it
+    private static final String DUE_SQL = "SELECT e.* FROM order_events e WHERE e.dead = FALSE AND e.available_at <= ? " +
+            "AND NOT EXISTS (SELECT 1 FROM order_events p WHERE p.order_id = e.order_id AND p.id < e.id AND p.dead = FALSE) " +
+            "ORDER BY e.id LIMIT ?";
+
+    private static final String RETRY_SQL = "UPDATE order_events SET attempts = ?, available_at = ?, last_error = ?, dead = ? WHERE id = ?";
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired(required = false)
+    private List<OrderEventHandler> handlers = List.of();
+
+    @Value("${orders.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${orders.outbox.max-batches-per-run:50}")
+    private int maxBatchesPerRun = 50;
+
+    @Value("${orders.outbox.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${orders.outbox.retry-backoff-ms:1000}")
+    private long retryBackoffMs = 1000;
+
+    @Value("${orders.outbox.max-retry-backoff-ms:300000}")
+    private long maxRetryBackoffMs = 300_000;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval-ms:200}")
+    public void dispatch() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            List<OrderEvent> batch = jdbcTemplate.query(DUE_SQL, OrderEventDispatcher::mapEvent, LocalDateTime.now(), batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            dispatchBatch(batch);
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        LocalDateTime oldest = orderEventRepository.findOldestPendingCreatedAt();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", orderEventRepository.countByDead(false));
+        stats.put("dead", orderEventRepository.countByDead(true));
+        stats.put("oldestPendingAgeSeconds", oldest == null ? 0.0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0);
+        stats.put("delivered", delivered.sum());
+        stats.put("retried", retried.sum());
+        stats.put("deadLettered", deadLettered.sum());
+        stats.put("handlers", handlers.stream().map(handler -> handler.getClass().getSimpleName()).toList());
+        return stats;
+    }
+
+    private void dispatchBatch(List<OrderEvent> batch) {
+        List<Long> done = new ArrayList<>();
+        List<OrderEvent> failed = new ArrayList<>();
+        // Once an event of an order fails, its later events wait behind it
+        Set<Long> blockedOrders = new HashSet<>();
+        for (OrderEvent event : batch) {
+            if (blockedOrders.contains(event.getOrderId())) {
+                continue;
+            }
+            RuntimeException error = deliver(event);
+            if (error == null) {
+                done.add(event.getId());
+                metricsRegistry.timer(MetricsRegistry.Family.ORDER_EVENT_LAG, event.getType().name())
+                        .record(Duration.between(event.getCreatedAt(), LocalDateTime.now()).toNanos(), false);
+            } else {
+                blockedOrders.add(event.getOrderId());
+                failed.add(scheduleRetry(event, error));
+            }
+        }
+        if (!done.isEmpty()) {
+            jdbcTemplate.batchUpdate("DELETE FROM order_events WHERE id = ?", done.stream().map(id -> new Object[]{id}).toList());
+            delivered.add(done.size());
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(RETRY_SQL, failed.stream().map(e -> new Object[]{
+                    e.getAttempts(), e.getAvailableAt(), e.getLastError(), e.isDead(), e.getId()}).toList());
+        }
+    }
+
+    private static OrderEvent mapEvent(ResultSet rs, int row) throws SQLException {
+        OrderEvent event = new OrderEvent();
+        event.setId(rs.getLong("id"));
+        event.setType(OrderEvent.Type.valueOf(rs.getString("type")));
+        event.setOrderId(rs.getLong("order_id"));
+        event.setUserId(rs.getLong("user_id"));
+        event.setStatus(Order.Status.valueOf(rs.getString("status")));
+        String previousStatus = rs.getString("previous_status");
+        event.setPreviousStatus(previousStatus == null ? null : Order.Status.valueOf(previousStatus));
+        event.setTotalAmount(rs.getBigDecimal("total_amount"));
+        event.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        event.setAttempts(rs.getInt("attempts"));
+        event.setAvailableAt(rs.getTimestamp("available_at").toLocalDateTime());
+        event.setLastError(rs.getString("last_error"));
+        return event;
+    }
+
+    private RuntimeException deliver(OrderEvent event) {
+        for (OrderEventHandler handler : handlers) {
+            LatencyTimer timer = metricsRegistry.timer(MetricsRegistry.Family.ORDER_EVENT_HANDLERS, handler.getClass().getSimpleName());
+            long start = System.nanoTime();
+            try {
+                handler.handle(event);
+                timer.record(System.nanoTime() - start, false);
+            } catch (RuntimeException e) {
+                timer.record(System.nanoTime() - start, true);
+                return e;
+            }
+        }
+        return null;
+    }
+
+    private OrderEvent scheduleRetry(OrderEvent event, RuntimeException error) {
+        int attempts = event.getAttempts() + 1;
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        event.setAttempts(attempts);
+        event.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        if (attempts >= maxAttempts) {
+            event.setDead(true);
+            deadLettered.increment();
+            log.error("Giving up on {} event {} for order {} after {} attempts: {}",
+                    event.getType(), event.getId(), event.getOrderId(), attempts, message);
+        } else {
+            long backoff = Math.min(maxRetryBackoffMs, retryBackoffMs << Math.min(attempts - 1, 20));
+            event.setAvailableAt(LocalDateTime.now().plusNanos(backoff * 1_000_000));
+            retried.increment();
+            log.warn("{} event {} for order {} failed (attempt {}), retrying in {} ms: {}",
+                    event.getType(), event.getId(), event.getOrderId(), attempts, backoff, message);
+        }
+        return event;
+    }
+}
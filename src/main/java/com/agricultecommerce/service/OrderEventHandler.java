@@ -0,0 +1,14 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.OrderEvent;
+
+/**
+ * In-process consumer of order lifecycle events; every bean implementing it is called by
+ * {@link OrderEventDispatcher} for each event, off the request thread and after the order's
+ * transaction committed. Delivery is at least once: when any handler throws, the event is
+ * offered to all handlers again later, so handlers must tolerate repeats.
+ */
+public interface OrderEventHandler {
+
+    void handle(OrderEvent event);
+}
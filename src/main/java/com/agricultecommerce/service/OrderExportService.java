@@ -0,0 +1,214 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.Order;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Streams orders straight from a forward-only JDBC result set to the response. Rows are
+ * fetched {@code orders.export.fetch-size} at a time and written as they arrive, so memory
+ * use is bounded by one order however many are exported.
+ */
+@Service
+public class OrderExportService {
+
+    static final String CSV_HEADER = "order_id,order_date,status,user_id,username,shipping_address,total_amount," +
+            "product_id,sku,product_name,quantity,price";
+
+    private static final String SELECT = "SELECT o.id, o.order_date, o.status, o.total_amount, o.shipping_address, " +
+            "u.id AS user_id, u.username, i.product_id, p.sku, p.name AS product_name, i.quantity, i.price " +
+            "FROM orders o JOIN users u ON u.id = o.user_id " +
+            "LEFT JOIN order_items i ON i.order_id = o.id LEFT JOIN products p ON p.id = i.product_id";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // MySQL only streams with useCursorFetch=true on the JDBC URL; without it the driver buffers the result
+    @Value("${orders.export.fetch-size:500}")
+    private int fetchSize = 500;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        // A template of its own so the fetch size does not apply to every other query
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(fetchSize);
+        jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+
+    /**
+     * Writes one JSON object per order, with its items nested, separated by newlines.
+     */
+    public void exportNdjson(LocalDate from, LocalDate to, Collection<Order.Status> statuses, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.setRootValueSeparator(null);
+        ExportedOrder[] current = new ExportedOrder[1];
+        stream(from, to, statuses, rs -> {
+            long orderId = rs.getLong("id");
+            if (current[0] != null && current[0].id != orderId) {
+                writeJson(json, current[0]);
+                current[0] = null;
+            }
+            if (current[0] == null) {
+                current[0] = new ExportedOrder(rs);
+            }
+            long productId = rs.getLong("product_id");
+            if (!rs.wasNull()) {
+                current[0].items.add(new ExportedItem(productId, rs.getString("sku"), rs.getString("product_name"),
+                        rs.getInt("quantity"), rs.getBigDecimal("price")));
+            }
+        });
+        if (current[0] != null) {
+            writeJson(json, current[0]);
+        }
+        json.flush();
+    }
+
+    /**
+     * Writes one CSV row per order item; an order without items gets one row with the item
+     * columns empty.
+     */
+    public void exportCsv(LocalDate from, LocalDate to, Collection<Order.Status> statuses, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        stream(from, to, statuses, rs -> writeCsv(writer, rs.getLong("id"), rs.getTimestamp("order_date").toLocalDateTime(),
+                rs.getString("status"), rs.getLong("user_id"), rs.getString("username"), rs.getString("shipping_address"),
+                rs.getBigDecimal("total_amount"), rs.getObject("product_id"), rs.getString("sku"),
+                rs.getString("product_name"), rs.getObject("quantity"), rs.getBigDecimal("price")));
+        writer.flush();
+    }
+
+    private void stream(LocalDate from, LocalDate to, Collection<Order.Status> statuses, RowHandler handler) throws IOException {
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE 1 = 1");
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (from != null) {
+            sql.append(" AND o.order_date >= :from");
+            params.addValue("from", Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND o.order_date < :to");
+            params.addValue("to", Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND o.status IN (:statuses)");
+            params.addValue("statuses", statuses.stream().map(Enum::name).toList());
+        }
+        // Rows of one order stay together, which is all the grouping needs
+        sql.append(" ORDER BY o.id");
+
+        try {
+            jdbcTemplate.query(sql.toString(), params, rs -> {
+                try {
+                    handler.handle(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // The client went away; stop reading rows
+            throw e.getCause();
+        }
+    }
+
+    private static void writeJson(JsonGenerator json, ExportedOrder order) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", order.id);
+        json.writeStringField("orderDate", order.orderDate.toLocalDateTime().toString());
+        json.writeStringField("status", order.status);
+        json.writeNumberField("userId", order.userId);
+        json.writeStringField("username", order.username);
+        json.writeStringField("shippingAddress", order.shippingAddress);
+        json.writeNumberField("totalAmount", order.totalAmount);
+        json.writeArrayFieldStart("items");
+        for (ExportedItem item : order.items) {
+            json.writeStartObject();
+            json.writeNumberField("productId", item.productId);
+            json.writeStringField("sku", item.sku);
+            json.writeStringField("productName", item.productName);
+            json.writeNumberField("quantity", item.quantity);
+            json.writeNumberField("price", item.price);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private static void writeCsv(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] == null) {
+                continue;
+            }
+            String value = values[i] instanceof BigDecimal decimal ? decimal.toPlainString() : values[i].toString();
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private static final class ExportedOrder {
+        private final long id;
+        private final Timestamp orderDate;
+        private final String status;
+        private final long userId;
+        private final String username;
+        private final String shippingAddress;
+        private final BigDecimal totalAmount;
+        private final List<ExportedItem> items = new ArrayList<>();
+
+        private ExportedOrder(ResultSet rs) throws SQLException {
+            id = rs.getLong("id");
+            orderDate = rs.getTimestamp("order_date");
+            status = rs.getString("status");
+            userId = rs.getLong("user_id");
+            username = rs.getString("username");
+            shippingAddress = rs.getString("shipping_address");
+            totalAmount = rs.getBigDecimal("total_amount");
+        }
+    }
+
+    private record ExportedItem(long productId, String sku, String productName, int quantity, BigDecimal price) {
+    }
+}
@@ -1,15 +1,16 @@
 package com.agricultecommerce.service;
 
-import com.agricultecommerce.entity.Cart;
-import com.agricultecommerce.entity.CartItem;
+import com.agricultecommerce.dto.CursorPage;
 import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.entity.OrderEvent;
 import com.agricultecommerce.entity.OrderItem;
 import com.agricultecommerce.entity.Product;
 import com.agricultecommerce.entity.User;
 import com.agricultecommerce.exception.BadRequestException;
 import com.agricultecommerce.exception.ResourceNotFoundException;
-import com.agricultecommerce.repository.CartRepository;
-import com.agricultecommerce.repository.OrderItemRepository;
+import com.agricultecommerce.repository.ArchivedOrderRepository;
+import com.agricultecommerce.repository.OrderEventRepository;
+import com.agricultecommerce.repository.OrderQueueQuery;
 import com.agricultecommerce.repository.OrderRepository;
 import com.agricultecommerce.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,26 +18,45 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class OrderService {
 
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     @Autowired
     private OrderRepository orderRepository;
 
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private CartStore cartStore;
 
     @Autowired
-    private CartRepository cartRepository;
+    private ProductRepository productRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private OrderArchive orderArchive;
 
     @Transactional
     public Order createOrderFromCart(User user, String shippingAddress) {
@@ -44,10 +64,8 @@ public class OrderService {
             throw new BadRequestException("Shipping address is required");
         }
         
-        Cart cart = cartRepository.findByUserId(user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Cart not found"));
-        
-        if (cart.getCartItems() == null || cart.getCartItems().isEmpty()) {
+        CartStore.Snapshot cart = cartStore.snapshot(user.getId());
+        if (cart.lines().isEmpty()) {
             throw new BadRequestException("Cart is empty");
         }
 
@@ -57,23 +75,27 @@ public class OrderService {
         order.setStatus(Order.Status.PENDING);
         order.setShippingAddress(shippingAddress);
 
+        Map<Long, Integer> lines = new LinkedHashMap<>();
+        for (CartStore.Line line : cart.lines()) {
+            lines.merge(line.productId(), line.quantity(), Integer::sum);
+        }
+        Map<Long, Product> products = productRepository.findAllById(lines.keySet()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        if (products.size() < lines.size()) {
+            throw new BadRequestException("A product in your cart is no longer available");
+        }
+        reserveStock(lines, products);
+
         Set<OrderItem> orderItems = new HashSet<>();
         BigDecimal total = BigDecimal.ZERO;
 
-        for (CartItem item : cart.getCartItems()) {
-            Product product = item.getProduct();
-            if (product.getStock() < item.getQuantity()) {
-                throw new BadRequestException("Insufficient stock for " + product.getName());
-            }
-            
-            product.setStock(product.getStock() - item.getQuantity());
-            productRepository.save(product);
-
+        for (CartStore.Line line : cart.lines()) {
+            Product product = products.get(line.productId());
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
             orderItem.setProduct(product);
-            orderItem.setQuantity(item.getQuantity());
-            orderItem.setPrice(product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+            orderItem.setQuantity(line.quantity());
+            orderItem.setPrice(product.getPrice().multiply(BigDecimal.valueOf(line.quantity())));
             orderItems.add(orderItem);
             total = total.add(orderItem.getPrice());
         }
@@ -81,10 +103,9 @@ public class OrderService {
         order.setOrderItems(orderItems);
         order.setTotalAmount(total);
         Order savedOrder = orderRepository.save(order);
-        orderItemRepository.saveAll(orderItems);
+        orderEventRepository.save(new OrderEvent(OrderEvent.Type.PLACED, savedOrder, null));
 
-        cart.getCartItems().clear();
-        cartRepository.save(cart);
+        cartStore.removeAfterCommit(user.getId(), cart.lines().stream().map(CartStore.Line::itemId).toList());
         
         return savedOrder;
     }
@@ -101,10 +122,8 @@ public class OrderService {
         
         Product product = productRepository.findById(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
-        
-        if (product.getStock() < quantity) {
-            throw new BadRequestException("Insufficient stock for " + product.getName());
-        }
+
+        reserveStock(Map.of(productId, quantity), Map.of(productId, product));
 
         Order order = new Order();
         order.setUser(user);
@@ -118,34 +137,142 @@ public class OrderService {
         item.setQuantity(quantity);
         item.setPrice(product.getPrice().multiply(BigDecimal.valueOf(quantity)));
 
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
-
         order.setOrderItems(Set.of(item));
         order.setTotalAmount(item.getPrice());
 
         Order savedOrder = orderRepository.save(order);
-        orderItemRepository.save(item);
-        
+        orderEventRepository.save(new OrderEvent(OrderEvent.Type.PLACED, savedOrder, null));
         return savedOrder;
     }
 
-    public List<Order> getOrdersByUser(User user) {
-        return orderRepository.findByUserId(user.getId());
+    /**
+     * Takes every line's stock or fails the order. The ledger turns away shortages it already
+     * knows about; the rest are decremented in one conditional batch against
+     * {@code products.stock}, which cannot go negative however many checkouts race. A line the
+     * database refuses rolls the whole order back, and its ledger count is reloaded.
+     */
+    private void reserveStock(Map<Long, Integer> lines, Map<Long, Product> products) {
+        List<Long> shortages = inventoryLedger.reserve(lines);
+        if (shortages.isEmpty()) {
+            shortages = productRepository.decrementStock(lines);
+            inventoryLedger.resync(shortages);
+        }
+        if (!shortages.isEmpty()) {
+            throw new BadRequestException("Insufficient stock for " + shortages.stream()
+                    .map(id -> products.get(id).getName()).collect(Collectors.joining(", ")));
+        }
+    }
+
+    /**
+     * One page of a user's orders, newest first, archived ones included. Order ids are paged
+     * by keyset on (orderDate, id) across {@code orders} and {@code archived_orders} in one
+     * query; the page's live orders are then loaded with their items, products and categories
+     * in a single fetch-joined query and archived ones from their month files, so the
+     * statement count does not depend on the page size or the number of items.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrderHistory(Long userId, String after, Integer size) {
+        if (size == null || size <= 0) {
+            throw new BadRequestException("Size must be greater than zero");
+        }
+        int pageSize = Math.min(size, MAX_HISTORY_PAGE_SIZE);
+        OrderCursor cursor = after == null || after.isEmpty() ? null : OrderCursor.decode(after);
+        List<Object[]> rows = cursor == null
+                ? orderRepository.findHistoryRows(userId, pageSize + 1)
+                : orderRepository.findHistoryRowsBefore(userId, cursor.getOrderDate(), cursor.getId(), pageSize + 1);
+
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        if (rows.isEmpty()) {
+            return new CursorPage<>(List.of(), pageSize, null);
+        }
+        List<Long> ids = new ArrayList<>();
+        List<Long> liveIds = new ArrayList<>();
+        Map<Long, LocalDateTime> archivedDates = new HashMap<>();
+        for (Object[] row : rows) {
+            Long id = ((Number) row[0]).longValue();
+            ids.add(id);
+            if (((Number) row[2]).intValue() == 1) {
+                archivedDates.put(id, orderDate(row));
+            } else {
+                liveIds.add(id);
+            }
+        }
+        Map<Long, Order> loaded = new HashMap<>(orderArchive.load(archivedDates));
+        if (!liveIds.isEmpty()) {
+            orderRepository.findWithItemsByIdIn(liveIds).forEach(order -> loaded.putIfAbsent(order.getId(), order));
+        }
+        List<Order> orders = ids.stream().map(loaded::get).filter(Objects::nonNull).toList();
+        // From the keyset row rather than the loaded orders, which may have lost rows removed meanwhile
+        Object[] last = rows.get(rows.size() - 1);
+        String next = hasNext ? OrderCursor.after(orderDate(last), ((Number) last[0]).longValue()).encode() : null;
+        return new CursorPage<>(orders, pageSize, next);
     }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    // Second column of a history or queue keyset row
+    private static LocalDateTime orderDate(Object[] row) {
+        return row[1] instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) row[1];
     }
 
+    /**
+     * One page of the admin order queue. Filters map onto the composite indexes on
+     * {@code orders}; pages are keyed on (orderDate, id), newest first unless
+     * {@code oldestFirst}. Orders are then loaded with their items in one query, as for history.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Order> getOrderQueue(OrderQueueQuery query, String after, Integer size) {
+        if (size == null || size <= 0) {
+            throw new BadRequestException("Size must be greater than zero");
+        }
+        int pageSize = Math.min(size, MAX_HISTORY_PAGE_SIZE);
+        if (after != null && !after.isEmpty()) {
+            OrderCursor cursor = OrderCursor.decode(after);
+            query.setAfter(cursor.getOrderDate(), cursor.getId());
+        }
+        query.setLimit(pageSize + 1);
+        List<Object[]> rows = orderRepository.findQueueRows(query);
+
+        boolean hasNext = rows.size() > pageSize;
+        if (hasNext) {
+            rows = rows.subList(0, pageSize);
+        }
+        if (rows.isEmpty()) {
+            return new CursorPage<>(List.of(), pageSize, null);
+        }
+        List<Long> ids = rows.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        Map<Long, Order> loaded = orderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity(), (a, b) -> a));
+        List<Order> orders = ids.stream().map(loaded::get).filter(Objects::nonNull).toList();
+        // As for history: orders archived or deleted since the keyset query must not move the cursor
+        Object[] last = rows.get(rows.size() - 1);
+        String next = hasNext ? OrderCursor.after(orderDate(last), ((Number) last[0]).longValue()).encode() : null;
+        return new CursorPage<>(orders, pageSize, next);
+    }
+
+    /**
+     * Looks the order up in {@code orders} first and then in the archive.
+     */
     public Optional<Order> getOrderById(Long id) {
-        return orderRepository.findById(id);
+        Optional<Order> order = orderRepository.findWithItemsById(id);
+        if (order.isPresent()) {
+            return order;
+        }
+        return archivedOrderRepository.findById(id)
+                .map(archived -> orderArchive.load(Map.of(id, archived.getOrderDate())).get(id));
     }
 
+    @Transactional
     public Order updateOrderStatus(Long id, Order.Status status) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        Order.Status previous = order.getStatus();
         order.setStatus(status);
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        if (previous != status) {
+            orderEventRepository.save(new OrderEvent(OrderEvent.Type.STATUS_CHANGED, saved, previous));
+        }
+        return saved;
     }
 }
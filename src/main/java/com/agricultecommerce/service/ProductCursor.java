@@ -0,0 +1,119 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.ProductCardDto;
+import com.agricultecommerce.exception.BadRequestException;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position token for keyset paging of the product listing. A keyset cursor carries
+ * the sort field, direction, the last row's sort key and its id; a search cursor carries
+ * the position in the in-memory ranked result list.
+ */
+final class ProductCursor {
+
+    private static final String KEYSET = "k";
+    private static final String SEARCH = "s";
+
+    private final String field;
+    private final Sort.Direction direction;
+    private final Comparable<?> value;
+    private final Long id;
+    private final int offset;
+
+    private ProductCursor(String field, Sort.Direction direction, Comparable<?> value, Long id, int offset) {
+        this.field = field;
+        this.direction = direction;
+        this.value = value;
+        this.id = id;
+        this.offset = offset;
+    }
+
+    static ProductCursor keyset(Sort.Order order, ProductCardDto last) {
+        return new ProductCursor(order.getProperty(), order.getDirection(), sortValue(order.getProperty(), last), last.getId(), 0);
+    }
+
+    static ProductCursor search(int offset) {
+        return new ProductCursor(null, null, null, null, offset);
+    }
+
+    String getField() {
+        return field;
+    }
+
+    Sort.Direction getDirection() {
+        return direction;
+    }
+
+    Comparable<?> getValue() {
+        return value;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    boolean isSearch() {
+        return field == null;
+    }
+
+    String encode() {
+        String raw = isSearch()
+                ? SEARCH + "|" + offset
+                : KEYSET + "|" + field + "|" + direction.name() + "|" + id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 5);
+            if (SEARCH.equals(parts[0]) && parts.length == 2) {
+                return search(Integer.parseInt(parts[1]));
+            }
+            if (KEYSET.equals(parts[0]) && parts.length == 5) {
+                String field = parts[1];
+                return new ProductCursor(field, Sort.Direction.valueOf(parts[2]), parseValue(field, parts[4]),
+                        Long.parseLong(parts[3]), 0);
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the common error below
+        }
+        throw new BadRequestException("Invalid cursor");
+    }
+
+    static void requireKeysetField(String field) {
+        switch (field) {
+            case "id", "name", "price", "stock" -> {
+            }
+            default -> throw new BadRequestException("Unsupported sort field for cursor paging: " + field);
+        }
+    }
+
+    private static Comparable<?> sortValue(String field, ProductCardDto product) {
+        return switch (field) {
+            case "id" -> product.getId();
+            case "name" -> product.getName();
+            case "price" -> product.getPrice();
+            case "stock" -> product.getStock();
+            default -> throw new BadRequestException("Unsupported sort field for cursor paging: " + field);
+        };
+    }
+
+    private static Comparable<?> parseValue(String field, String value) {
+        return switch (field) {
+            case "id" -> Long.valueOf(value);
+            case "name" -> value;
+            case "price" -> new BigDecimal(value);
+            case "stock" -> Integer.valueOf(value);
+            default -> throw new BadRequestException("Unsupported sort field for cursor paging: " + field);
+        };
+    }
+}
@@ -0,0 +1,468 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.FacetCount;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.exception.BadRequestException;
+import com.agricultecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * Column-per-attribute index for faceted browsing. Each product occupies one slot across
+ * parallel primitive arrays; category, brand, origin and price band are stored as dictionary
+ * codes. A query makes one pass over the live slots and returns the matching ids together with
+ * every facet's counts. Within a facet the selected values are ORed; across facets they are
+ * ANDed, and each facet is counted with the other facets' filters applied but not its own, so
+ * the alternatives to the current selection keep their counts.
+ */
+@Component
+public class ProductFacetIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String BRAND = "brand";
+    public static final String ORIGIN = "origin";
+    public static final String PRICE = "price";
+    public static final String IN_STOCK = "inStock";
+
+    private static final int CATEGORY_FACET = 0;
+    private static final int BRAND_FACET = 1;
+    private static final int ORIGIN_FACET = 2;
+    private static final int PRICE_FACET = 3;
+    private static final int STOCK_FACET = 4;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Upper bounds of the price bands; the last band is open-ended
+    @Value("${catalog.facets.price-bands:1000,10000,50000,100000}")
+    private List<BigDecimal> priceBands = List.of(new BigDecimal("1000"), new BigDecimal("10000"),
+            new BigDecimal("50000"), new BigDecimal("100000"));
+
+    private final Dictionary<Long> categories = new Dictionary<>();
+    private final Dictionary<String> brands = new Dictionary<>();
+    private final Dictionary<String> origins = new Dictionary<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+
+    private long[] ids = new long[0];
+    private String[] names = new String[0];
+    private int[] categoryCodes = new int[0];
+    private int[] brandCodes = new int[0];
+    private int[] originCodes = new int[0];
+    private int[] bandCodes = new int[0];
+    private long[] priceCents = new long[0];
+    private int[] stock = new int[0];
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Selected values per facet; a null or empty selection does not filter.
+     */
+    public record Filter(Set<Long> categoryIds, Set<String> brands, Set<String> origins, Set<String> priceBands,
+                         Boolean inStock) {
+    }
+
+    public record Result(List<Long> ids, int total, Map<String, List<FacetCount>> facets) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild(productRepository.findAll());
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            categories.clear();
+            brands.clear();
+            origins.clear();
+            categoryNames.clear();
+            slots.clear();
+            freeSlots.clear();
+            live.clear();
+            inStock.clear();
+            resize(products.size());
+            products.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            put(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(productId);
+            if (slot != null) {
+                live.clear(slot);
+                inStock.clear(slot);
+                freeSlots.push(slot);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(Long productId, int available) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(productId);
+            if (slot != null) {
+                stock[slot] = available;
+                inStock.set(slot, available > 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void renameCategory(Long categoryId, String name) {
+        lock.writeLock().lock();
+        try {
+            if (name != null) {
+                categoryNames.put(categoryId, name);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filters, counts and pages in one pass. {@code candidates}, when not null, restricts the
+     * pass to those product ids (e.g. full-text matches, best first). Results are ordered by
+     * {@code sort}; when unsorted, by candidate order or else by id.
+     */
+    public Result query(Filter filter, List<Long> candidates, Sort sort, int page, int size) {
+        lock.readLock().lock();
+        try {
+            BitSet categorySelection = selection(categories, filter.categoryIds());
+            BitSet brandSelection = selection(brands, filter.brands());
+            BitSet originSelection = selection(origins, filter.origins());
+            BitSet bandSelection = bandSelection(filter.priceBands());
+            Boolean wantInStock = filter.inStock();
+
+            BitSet scan = live;
+            int[] rank = null;
+            if (candidates != null) {
+                scan = new BitSet();
+                rank = new int[ids.length];
+                for (int i = 0; i < candidates.size(); i++) {
+                    Integer slot = slots.get(candidates.get(i));
+                    if (slot != null) {
+                        scan.set(slot);
+                        rank[slot] = i;
+                    }
+                }
+            }
+
+            int[] categoryCounts = new int[categories.size()];
+            int[] brandCounts = new int[brands.size()];
+            int[] originCounts = new int[origins.size()];
+            int[] bandCounts = new int[priceBands.size() + 1];
+            int[] stockCounts = new int[2];
+            int[] matches = new int[scan.cardinality()];
+            int matched = 0;
+
+            for (int slot = scan.nextSetBit(0); slot >= 0; slot = scan.nextSetBit(slot + 1)) {
+                // Which facet filters reject this slot: with none it matches and counts
+                // everywhere, with one it still counts towards that facet's alternatives
+                int failed = 0;
+                int failedFacet = -1;
+                if (!accepts(categorySelection, categoryCodes[slot])) {
+                    failed++;
+                    failedFacet = CATEGORY_FACET;
+                }
+                if (!accepts(brandSelection, brandCodes[slot])) {
+                    failed++;
+                    failedFacet = BRAND_FACET;
+                }
+                if (!accepts(originSelection, originCodes[slot])) {
+                    failed++;
+                    failedFacet = ORIGIN_FACET;
+                }
+                if (!accepts(bandSelection, bandCodes[slot])) {
+                    failed++;
+                    failedFacet = PRICE_FACET;
+                }
+                if (wantInStock != null && wantInStock != inStock.get(slot)) {
+                    failed++;
+                    failedFacet = STOCK_FACET;
+                }
+                if (failed > 1) {
+                    continue;
+                }
+                if (failed == 0) {
+                    matches[matched++] = slot;
+                }
+                if (failed == 0 || failedFacet == CATEGORY_FACET) {
+                    count(categoryCounts, categoryCodes[slot]);
+                }
+                if (failed == 0 || failedFacet == BRAND_FACET) {
+                    count(brandCounts, brandCodes[slot]);
+                }
+                if (failed == 0 || failedFacet == ORIGIN_FACET) {
+                    count(originCounts, originCodes[slot]);
+                }
+                if (failed == 0 || failedFacet == PRICE_FACET) {
+                    count(bandCounts, bandCodes[slot]);
+                }
+                if (failed == 0 || failedFacet == STOCK_FACET) {
+                    stockCounts[inStock.get(slot) ? 1 : 0]++;
+                }
+            }
+
+            List<Long> pageIds = page(Arrays.copyOf(matches, matched), sort, rank, page, size);
+
+            Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+            facets.put(CATEGORY, facet(categoryCounts, categorySelection, code -> {
+                Long id = categories.value(code);
+                return new String[]{String.valueOf(id), categoryNames.getOrDefault(id, String.valueOf(id))};
+            }));
+            facets.put(BRAND, facet(brandCounts, brandSelection, code -> new String[]{brands.value(code), brands.value(code)}));
+            facets.put(ORIGIN, facet(originCounts, originSelection, code -> new String[]{origins.value(code), origins.value(code)}));
+            facets.put(PRICE, bandFacet(bandCounts));
+            facets.put(IN_STOCK, List.of(new FacetCount("true", "In stock", stockCounts[1]),
+                    new FacetCount("false", "Out of stock", stockCounts[0])));
+            return new Result(pageIds, matched, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(Product product) {
+        Integer slot = slots.get(product.getId());
+        if (slot == null) {
+            slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+            if (slot >= ids.length) {
+                resize(Math.max(16, ids.length * 2));
+            }
+            slots.put(product.getId(), slot);
+        }
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        if (categoryId != null && product.getCategory().getName() != null) {
+            categoryNames.put(categoryId, product.getCategory().getName());
+        }
+        ids[slot] = product.getId();
+        names[slot] = product.getName();
+        categoryCodes[slot] = categories.encode(categoryId);
+        brandCodes[slot] = brands.encode(product.getBrand());
+        originCodes[slot] = origins.encode(product.getOrigin());
+        BigDecimal price = product.getPrice();
+        priceCents[slot] = price == null ? Long.MIN_VALUE : price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        bandCodes[slot] = price == null ? -1 : band(price);
+        stock[slot] = product.getStock() == null ? 0 : product.getStock();
+        live.set(slot);
+        inStock.set(slot, stock[slot] > 0);
+    }
+
+    private void resize(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        brandCodes = Arrays.copyOf(brandCodes, capacity);
+        originCodes = Arrays.copyOf(originCodes, capacity);
+        bandCodes = Arrays.copyOf(bandCodes, capacity);
+        priceCents = Arrays.copyOf(priceCents, capacity);
+        stock = Arrays.copyOf(stock, capacity);
+    }
+
+    private int band(BigDecimal price) {
+        for (int i = 0; i < priceBands.size(); i++) {
+            if (price.compareTo(priceBands.get(i)) < 0) {
+                return i;
+            }
+        }
+        return priceBands.size();
+    }
+
+    // Band values read "-1000", "1000-10000", ..., "100000-"
+    private String bandValue(int band) {
+        String from = band == 0 ? "" : priceBands.get(band - 1).toPlainString();
+        String to = band == priceBands.size() ? "" : priceBands.get(band).toPlainString();
+        return from + "-" + to;
+    }
+
+    private String bandLabel(int band) {
+        if (band == 0) {
+            return "Under " + priceBands.get(0).toPlainString();
+        }
+        if (band == priceBands.size()) {
+            return priceBands.get(band - 1).toPlainString() + " and above";
+        }
+        return priceBands.get(band - 1).toPlainString() + " to " + priceBands.get(band).toPlainString();
+    }
+
+    private BitSet bandSelection(Set<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet selection = new BitSet();
+        for (int band = 0; band <= priceBands.size(); band++) {
+            if (values.contains(bandValue(band))) {
+                selection.set(band);
+            }
+        }
+        return selection;
+    }
+
+    private static <T> BitSet selection(Dictionary<T> dictionary, Set<T> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        BitSet selection = new BitSet();
+        for (T value : values) {
+            int code = dictionary.code(value);
+            if (code >= 0) {
+                selection.set(code);
+            }
+        }
+        return selection;
+    }
+
+    private static boolean accepts(BitSet selection, int code) {
+        return selection == null || (code >= 0 && selection.get(code));
+    }
+
+    private static void count(int[] counts, int code) {
+        if (code >= 0) {
+            counts[code]++;
+        }
+    }
+
+    private static List<FacetCount> facet(int[] counts, BitSet selection, IntFunction<String[]> describe) {
+        List<FacetCount> facet = new ArrayList<>();
+        for (int code = 0; code < counts.length; code++) {
+            // Selected values stay listed even when nothing else leaves them a match
+            if (counts[code] > 0 || (selection != null && selection.get(code))) {
+                String[] valueAndLabel = describe.apply(code);
+                facet.add(new FacetCount(valueAndLabel[0], valueAndLabel[1], counts[code]));
+            }
+        }
+        facet.sort(Comparator.comparingInt(FacetCount::getCount).reversed()
+                .thenComparing(FacetCount::getLabel, String.CASE_INSENSITIVE_ORDER));
+        return facet;
+    }
+
+    private List<FacetCount> bandFacet(int[] counts) {
+        List<FacetCount> facet = new ArrayList<>(counts.length);
+        for (int band = 0; band < counts.length; band++) {
+            facet.add(new FacetCount(bandValue(band), bandLabel(band), counts[band]));
+        }
+        return facet;
+    }
+
+    private List<Long> page(int[] matches, Sort sort, int[] rank, int page, int size) {
+        Integer[] order = new Integer[matches.length];
+        for (int i = 0; i < matches.length; i++) {
+            order[i] = matches[i];
+        }
+        Comparator<Integer> comparator = sort != null && sort.isSorted() || rank == null
+                ? comparatorFor(sort) : Comparator.comparingInt(slot -> rank[slot]);
+        Arrays.sort(order, comparator.thenComparingLong(slot -> ids[slot]));
+        int from = (int) Math.min((long) page * size, order.length);
+        int to = Math.min(from + size, order.length);
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(ids[order[i]]);
+        }
+        return pageIds;
+    }
+
+    private Comparator<Integer> comparatorFor(Sort sort) {
+        Comparator<Integer> result = null;
+        for (Sort.Order order : sort == null ? Sort.unsorted() : sort) {
+            Comparator<Integer> comparator = switch (order.getProperty()) {
+                case "id" -> Comparator.comparingLong(slot -> ids[slot]);
+                case "name" -> Comparator.comparing(slot -> names[slot], Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+                case "price" -> Comparator.comparingLong(slot -> priceCents[slot]);
+                case "stock" -> Comparator.comparingInt(slot -> stock[slot]);
+                default -> throw new BadRequestException("Unsupported sort field: " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                comparator = comparator.reversed();
+            }
+            result = result == null ? comparator : result.thenComparing(comparator);
+        }
+        return result == null ? Comparator.comparingLong(slot -> ids[slot]) : result;
+    }
+
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> codes = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int encode(T value) {
+            if (value == null) {
+                return -1;
+            }
+            return codes.computeIfAbsent(value, v -> {
+                values.add(v);
+                return values.size() - 1;
+            });
+        }
+
+        int code(T value) {
+            Integer code = codes.get(value);
+            return code == null ? -1 : code;
+        }
+
+        T value(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        void clear() {
+            codes.clear();
+            values.clear();
+        }
+    }
+}
@@ -0,0 +1,386 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.ImageUploadResult;
+import com.agricultecommerce.exception.BadRequestException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content-addressed product image store. Uploads are streamed to disk through a SHA-256
+ * digest and named after it, so the same image uploaded twice is stored once. Thumbnail and
+ * card-size JPEG variants are rendered on a small bounded pool after the upload returns;
+ * until they exist, {@link #variantUrl} hands out the original and queues them again if they
+ * are not already queued (the queue may have been full, or the process restarted).
+ */
+@Service
+public class ProductImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImageService.class);
+
+    public static final String URL_PREFIX = "/uploads/images/";
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "jpg", "jpg", "jpeg", "jpg", "png", "png", "gif", "gif", "webp", "webp");
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "image/jpeg", "jpg", "image/png", "png", "image/gif", "gif", "image/webp", "webp");
+
+    public enum Variant {
+        THUMBNAIL("thumb", 160),
+        CARD("card", 480);
+
+        private final String suffix;
+        private final int maxWidth;
+
+        Variant(String suffix, int maxWidth) {
+            this.suffix = suffix;
+            this.maxWidth = maxWidth;
+        }
+
+        String fileName(String hash) {
+            return hash + "-" + suffix + ".jpg";
+        }
+    }
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${images.storage-dir:uploads/images}")
+    private String storageDir = "uploads/images";
+
+    @Value("${images.max-upload-bytes:10485760}")
+    private long maxUploadBytes = 10 * 1024 * 1024;
+
+    // Decoding is width x height x 4 bytes whatever the file size, so oversized images are refused
+    @Value("${images.max-pixels:40000000}")
+    private long maxPixels = 40_000_000;
+
+    @Value("${images.variants.workers:2}")
+    private int workers = 2;
+
+    @Value("${images.variants.queue-capacity:200}")
+    private int queueCapacity = 200;
+
+    @Value("${images.variants.jpeg-quality:0.82}")
+    private float jpegQuality = 0.82f;
+
+    private Path directory;
+
+    private ThreadPoolExecutor variantPool;
+
+    // Hashes whose variants are all on disk, those queued or being rendered, and those that
+    // could not be rendered (which are not retried)
+    private final Set<String> ready = ConcurrentHashMap.newKeySet();
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() throws IOException {
+        // Picks up the WebP reader when running from the packaged jar
+        ImageIO.scanForPlugins();
+        directory = Paths.get(storageDir).toAbsolutePath().normalize();
+        Files.createDirectories(directory);
+        AtomicInteger threads = new AtomicInteger();
+        variantPool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "image-variants-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try (DirectoryStream<Path> originals = Files.newDirectoryStream(directory, "*.{jpg,png,gif,webp}")) {
+            for (Path original : originals) {
+                String hash = hashOf(original.getFileName().toString());
+                if (hash == null) {
+                    continue;
+                }
+                if (variantsExist(hash)) {
+                    ready.add(hash);
+                } else {
+                    scheduleVariants(hash, original);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        variantPool.shutdownNow();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Stores an upload named by extension (from the file name) or by content type, and
+     * queues its variants unless they already exist. Content that ImageIO cannot identify
+     * as an image is refused.
+     */
+    public ImageUploadResult store(InputStream in, String originalFilename, String contentType) throws IOException {
+        String extension = extensionOf(originalFilename, contentType);
+        Path temp = Files.createTempFile(directory, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                copyLimited(in, out);
+            }
+            if (!isImage(temp)) {
+                throw new BadRequestException("The upload is not a readable JPEG, PNG, GIF or WebP image");
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = directory.resolve(hash + "." + extension);
+            boolean duplicate = Files.exists(target);
+            if (!duplicate) {
+                moveIntoPlace(temp, target);
+            }
+            if (!ready.contains(hash)) {
+                scheduleVariants(hash, target);
+            }
+            String url = URL_PREFIX + target.getFileName();
+            return new ImageUploadResult(url, hash, duplicate,
+                    variantUrl(url, Variant.THUMBNAIL), variantUrl(url, Variant.CARD), ready.contains(hash));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * URL of the given variant of a stored image, or {@code imageUrl} itself when it is not
+     * one of ours or its variants have not been rendered yet, in which case they are queued.
+     */
+    public String variantUrl(String imageUrl, Variant variant) {
+        if (imageUrl == null || !imageUrl.startsWith(URL_PREFIX)) {
+            return imageUrl;
+        }
+        String fileName = imageUrl.substring(URL_PREFIX.length());
+        String hash = hashOf(fileName);
+        if (hash == null) {
+            return imageUrl;
+        }
+        if (ready.contains(hash)) {
+            return URL_PREFIX + variant.fileName(hash);
+        }
+        if (!pending.contains(hash) && !failed.contains(hash) && fileName.length() > 64 && fileName.charAt(64) == '.') {
+            scheduleVariants(hash, directory.resolve(fileName));
+        }
+        return imageUrl;
+    }
+
+    private void scheduleVariants(String hash, Path original) {
+        if (!pending.add(hash)) {
+            return;
+        }
+        try {
+            variantPool.execute(() -> {
+                try {
+                    renderVariants(hash, original);
+                    ready.add(hash);
+                    eventPublisher.publishEvent(new ProductImageVariantsReadyEvent(URL_PREFIX + original.getFileName()));
+                } catch (IOException | RuntimeException e) {
+                    failed.add(hash);
+                    log.warn("Could not render variants of {}: {}", original.getFileName(), e.getMessage());
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full: the original is served, and the next variantUrl lookup queues it again
+            pending.remove(hash);
+            log.debug("Image variant queue is full; serving {} without variants for now", original.getFileName());
+        }
+    }
+
+    private void renderVariants(String hash, Path original) throws IOException {
+        BufferedImage source = read(original);
+        for (Variant variant : Variant.values()) {
+            Path target = directory.resolve(variant.fileName(hash));
+            if (Files.exists(target)) {
+                continue;
+            }
+            Path temp = Files.createTempFile(directory, "variant-", ".tmp");
+            try {
+                writeJpeg(resize(source, variant.maxWidth), temp);
+                moveIntoPlace(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private static boolean isImage(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            return in != null && ImageIO.getImageReaders(in).hasNext();
+        }
+    }
+
+    private BufferedImage read(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > maxPixels) {
+                    throw new IOException("image is larger than " + maxPixels + " pixels");
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Scales down to maxWidth (never up), flattening transparency onto white for JPEG
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+        BufferedImage current = source;
+        // Halving steps before the final draw keep bilinear scaling from aliasing
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+        return draw(current, width, height);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private void copyLimited(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        long total = 0;
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            total += read;
+            if (total > maxUploadBytes) {
+                throw new BadRequestException("Image is larger than " + maxUploadBytes + " bytes");
+            }
+            out.write(buffer, 0, read);
+        }
+        if (total == 0) {
+            throw new BadRequestException("Image is empty");
+        }
+    }
+
+    // Same name means same content, so a concurrent upload replacing the file is harmless
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private boolean variantsExist(String hash) {
+        for (Variant variant : Variant.values()) {
+            if (!Files.exists(directory.resolve(variant.fileName(hash)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String extensionOf(String filename, String contentType) {
+        if (filename != null && filename.lastIndexOf('.') >= 0) {
+            String extension = EXTENSIONS.get(filename.substring(filename.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT));
+            if (extension != null) {
+                return extension;
+            }
+        }
+        if (contentType != null) {
+            String extension = CONTENT_TYPES.get(contentType.split(";")[0].trim().toLowerCase(Locale.ROOT));
+            if (extension != null) {
+                return extension;
+            }
+        }
+        throw new BadRequestException("Only JPEG, PNG, GIF and WebP images can be uploaded");
+    }
+
+    // The 64 hex digit hash an original or variant file name starts with, or null
+    private static String hashOf(String fileName) {
+        if (fileName.length() < 64 || (fileName.length() > 64 && fileName.charAt(64) != '.' && fileName.charAt(64) != '-')) {
+            return null;
+        }
+        for (int i = 0; i < 64; i++) {
+            if (Character.digit(fileName.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        return fileName.substring(0, 64);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
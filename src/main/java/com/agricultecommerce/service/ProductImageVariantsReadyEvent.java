@@ -0,0 +1,18 @@
+package com.agricultecommerce.service;
+
+/**
+ * Published by {@link ProductImageService} once the resized variants of an uploaded image
+ * are on disk, so cached products still pointing at the full-size original can be dropped.
+ */
+public class ProductImageVariantsReadyEvent {
+
+    private final String imageUrl;
+
+    public ProductImageVariantsReadyEvent(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+}
@@ -0,0 +1,441 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.exception.BadRequestException;
+import com.agricultecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tokenized inverted index over product name, brand, description and specifications.
+ * Each term maps to a posting list of product id to field weight. Query terms are
+ * prefix-matched so partial words keep matching the way the old LIKE search did.
+ *
+ * <p>Fuzzy searches also accept misspelt terms: name and brand terms are indexed by their
+ * trigrams, a query term's candidates are the terms sharing enough of its trigrams to be
+ * within {@link #maxEdits} edits, and only those candidates are checked by edit distance.
+ */
+@Component
+public class ProductSearchIndex {
+
+    static final int NAME_WEIGHT = 8;
+    static final int BRAND_WEIGHT = 4;
+    static final int SPECIFICATIONS_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    // Exact term hits score double so "pump" ranks pump products above "pumpkin"; typo matches score half a prefix hit
+    private static final int EXACT_MULTIPLIER = 4;
+    private static final int PREFIX_MULTIPLIER = 2;
+    private static final int FUZZY_MULTIPLIER = 1;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, Set<Long>> categoryPostings = new HashMap<>();
+    private final Map<Long, IndexedProduct> documents = new HashMap<>();
+    // Name and brand terms by trigram, and how many products use each of those terms
+    private final Map<String, Set<String>> trigramPostings = new HashMap<>();
+    private final Map<String, Integer> fuzzyTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild(productRepository.findAll());
+    }
+
+    public void rebuild(Collection<Product> products) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            categoryPostings.clear();
+            documents.clear();
+            trigramPostings.clear();
+            fuzzyTerms.clear();
+            products.forEach(this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            removeDocument(product.getId());
+            addDocument(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Refreshes the stock that {@code sortBy=stock} orders search results by; stock changes
+     * through checkout never pass through {@link #index}.
+     */
+    public void updateStock(Long productId, int stock) {
+        lock.writeLock().lock();
+        try {
+            documents.computeIfPresent(productId, (id, doc) -> new IndexedProduct(doc.id(), doc.categoryId(), doc.name(),
+                    doc.brand(), doc.price(), stock, doc.terms(), doc.fuzzyTerms()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The category the product is indexed under, or {@code null} for an unknown product.
+     */
+    public Long categoryOf(Long productId) {
+        lock.readLock().lock();
+        try {
+            IndexedProduct doc = documents.get(productId);
+            return doc == null ? null : doc.categoryId();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> idsInCategory(Long categoryId) {
+        lock.readLock().lock();
+        try {
+            return List.copyOf(categoryPostings.getOrDefault(categoryId, Set.of()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String query, Long categoryId, Sort sort) {
+        return search(query, categoryId, sort, false);
+    }
+
+    /**
+     * Returns the ids of all products matching every query term, restricted to the given
+     * category when present. With {@code fuzzy}, a term also matches name and brand terms
+     * within {@link #maxEdits} edits of it, ranked below exact and prefix matches. Results
+     * are ordered by relevance unless an explicit sort is given.
+     */
+    public List<Long> search(String query, Long categoryId, Sort sort, boolean fuzzy) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        Comparator<IndexedProduct> order = sort == null || sort.isUnsorted() ? null : comparatorFor(sort);
+
+        lock.readLock().lock();
+        try {
+            Set<Long> allowed = null;
+            if (categoryId != null) {
+                allowed = categoryPostings.get(categoryId);
+                if (allowed == null) {
+                    return List.of();
+                }
+            }
+
+            Map<Long, Integer> scores = null;
+            for (String term : new HashSet<>(terms)) {
+                Map<Long, Integer> termScores = scoreTerm(term, allowed, fuzzy);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<IndexedProduct> matches = new ArrayList<>(scores.size());
+            for (Long id : scores.keySet()) {
+                matches.add(documents.get(id));
+            }
+            if (order != null) {
+                matches.sort(order.thenComparing(IndexedProduct::id));
+            } else {
+                Map<Long, Integer> finalScores = scores;
+                matches.sort(Comparator.comparing((IndexedProduct doc) -> finalScores.get(doc.id())).reversed()
+                        .thenComparing(IndexedProduct::id));
+            }
+
+            List<Long> ids = new ArrayList<>(matches.size());
+            matches.forEach(doc -> ids.add(doc.id()));
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> scoreTerm(String term, Set<Long> allowed, boolean fuzzy) {
+        Map<Long, Integer> termScores = new HashMap<>();
+        for (Map.Entry<String, Map<Long, Integer>> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int multiplier = entry.getKey().equals(term) ? EXACT_MULTIPLIER : PREFIX_MULTIPLIER;
+            addPostings(termScores, entry.getValue(), multiplier, allowed);
+        }
+        if (fuzzy) {
+            for (String similar : similarTerms(term)) {
+                if (!similar.startsWith(term)) {
+                    addPostings(termScores, postings.get(similar), FUZZY_MULTIPLIER, allowed);
+                }
+            }
+        }
+        return termScores;
+    }
+
+    private static void addPostings(Map<Long, Integer> termScores, Map<Long, Integer> list, int multiplier, Set<Long> allowed) {
+        for (Map.Entry<Long, Integer> posting : list.entrySet()) {
+            if (allowed != null && !allowed.contains(posting.getKey())) {
+                continue;
+            }
+            termScores.merge(posting.getKey(), posting.getValue() * multiplier, Math::max);
+        }
+    }
+
+    /**
+     * Name and brand terms within {@link #maxEdits} edits of the given term. An edit changes at
+     * most four of a term's trigrams (three for a substitution, four for swapping adjacent
+     * letters), so a candidate must share all but {@code 4 * maxEdits} of them, and therefore
+     * at least one of the rarest {@code 4 * maxEdits + 1}. Candidates
+     * are drawn from those short lists, counted against the rest, and only the ones sharing
+     * enough trigrams get the edit-distance check.
+     */
+    private List<String> similarTerms(String term) {
+        int maxEdits = maxEdits(term.length());
+        if (maxEdits == 0) {
+            return List.of();
+        }
+        List<Set<String>> lists = new ArrayList<>();
+        for (String gram : trigrams(term)) {
+            lists.add(trigramPostings.getOrDefault(gram, Set.of()));
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        int required = Math.max(1, lists.size() - 4 * maxEdits);
+        int probed = lists.size() - required + 1;
+
+        Set<String> checked = new HashSet<>();
+        List<String> similar = new ArrayList<>();
+        for (int i = 0; i < probed; i++) {
+            for (String candidate : lists.get(i)) {
+                if (Math.abs(candidate.length() - term.length()) > maxEdits || !checked.add(candidate)) {
+                    continue;
+                }
+                // Lists before i were probed already and did not hold it
+                int shared = 1;
+                for (int j = i + 1; j < lists.size() && shared < required; j++) {
+                    if (lists.get(j).contains(candidate)) {
+                        shared++;
+                    }
+                }
+                if (shared >= required && withinEdits(term, candidate, maxEdits)) {
+                    similar.add(candidate);
+                }
+            }
+        }
+        return similar;
+    }
+
+    // Short terms are too ambiguous to correct; longer ones tolerate a second typo
+    static int maxEdits(int length) {
+        return length < 5 ? 0 : length < 9 ? 1 : 2;
+    }
+
+    // Trigrams of the term padded with '$', so its first and last letters count as much as the rest
+    static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Whether the optimal string alignment distance (insertions, deletions, substitutions and
+     * adjacent transpositions) between the two terms is at most {@code max}; gives up as soon as
+     * a whole row of the table exceeds it.
+     */
+    static boolean withinEdits(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return false;
+        }
+        int[] before = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int distance = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    distance = Math.min(distance, before[j - 2] + 1);
+                }
+                current[j] = distance;
+                rowMin = Math.min(rowMin, distance);
+            }
+            if (rowMin > max) {
+                return false;
+            }
+            int[] recycled = before;
+            before = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()] <= max;
+    }
+
+    private void addDocument(Product product) {
+        Map<String, Integer> weights = new HashMap<>();
+        addField(weights, product.getName(), NAME_WEIGHT);
+        addField(weights, product.getBrand(), BRAND_WEIGHT);
+        addField(weights, product.getSpecifications(), SPECIFICATIONS_WEIGHT);
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        Set<String> nameAndBrandTerms = new HashSet<>(tokenize(product.getName()));
+        nameAndBrandTerms.addAll(tokenize(product.getBrand()));
+        // No fuzzy query term is close enough to anything shorter
+        nameAndBrandTerms.removeIf(term -> term.length() < 4);
+
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        IndexedProduct doc = new IndexedProduct(product.getId(), categoryId, product.getName(), product.getBrand(),
+                product.getPrice(), product.getStock(), weights.keySet(), nameAndBrandTerms);
+        documents.put(doc.id(), doc);
+        for (String term : nameAndBrandTerms) {
+            if (fuzzyTerms.merge(term, 1, Integer::sum) == 1) {
+                trigrams(term).forEach(gram -> trigramPostings.computeIfAbsent(gram, g -> new HashSet<>()).add(term));
+            }
+        }
+
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(doc.id(), weight));
+        if (categoryId != null) {
+            categoryPostings.computeIfAbsent(categoryId, c -> new HashSet<>()).add(doc.id());
+        }
+    }
+
+    private void removeDocument(Long productId) {
+        IndexedProduct doc = documents.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        for (String term : doc.terms()) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(productId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        for (String term : doc.fuzzyTerms()) {
+            if (fuzzyTerms.merge(term, -1, Integer::sum) == 0) {
+                fuzzyTerms.remove(term);
+                for (String gram : trigrams(term)) {
+                    Set<String> terms = trigramPostings.get(gram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        trigramPostings.remove(gram);
+                    }
+                }
+            }
+        }
+        if (doc.categoryId() != null) {
+            Set<Long> ids = categoryPostings.get(doc.categoryId());
+            if (ids != null) {
+                ids.remove(productId);
+                if (ids.isEmpty()) {
+                    categoryPostings.remove(doc.categoryId());
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Integer> weights, String text, int weight) {
+        for (String term : tokenize(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static Comparator<IndexedProduct> comparatorFor(Sort sort) {
+        Comparator<IndexedProduct> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<IndexedProduct> comparator = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(IndexedProduct::id);
+                case "name" -> Comparator.comparing(IndexedProduct::name, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+                case "brand" -> Comparator.comparing(IndexedProduct::brand, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+                case "price" -> Comparator.comparing(IndexedProduct::price, Comparator.nullsLast(Comparator.<BigDecimal>naturalOrder()));
+                case "stock" -> Comparator.comparing(IndexedProduct::stock, Comparator.nullsLast(Comparator.<Integer>naturalOrder()));
+                default -> throw new BadRequestException("Unsupported sort field: " + order.getProperty());
+            };
+            if (order.isDescending()) {
+                comparator = comparator.reversed();
+            }
+            result = result == null ? comparator : result.thenComparing(comparator);
+        }
+        return result;
+    }
+
+    private record IndexedProduct(Long id, Long categoryId, String name, String brand, BigDecimal price,
+                                  Integer stock, Set<String> terms, Set<String> fuzzyTerms) {
+    }
+}
@@ -1,17 +1,32 @@
 package com.agricultecommerce.service;
 
+import com.agricultecommerce.dto.CursorPage;
+import com.agricultecommerce.dto.FacetedProductPage;
+import com.agricultecommerce.dto.ProductCardDto;
+import com.agricultecommerce.dto.ProductDetailDto;
+import com.agricultecommerce.dto.ProductSuggestion;
 import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.exception.BadRequestException;
 import com.agricultecommerce.exception.ResourceNotFoundException;
 import com.agricultecommerce.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PostConstruct;
+
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
@@ -19,41 +34,282 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
-    public Page<Product> getProducts(Integer page, Integer size, Long categoryId, String search, String sortBy) {
-        Pageable pageable;
-        if (sortBy != null && !sortBy.isEmpty()) {
-            String[] sortParams = sortBy.split(",");
-            String field = sortParams[0];
-            Sort.Direction direction = sortParams.length > 1 && "desc".equalsIgnoreCase(sortParams[1]) 
-                ? Sort.Direction.DESC 
-                : Sort.Direction.ASC;
-            pageable = PageRequest.of(page, size, Sort.by(direction, field));
-        } else {
-            pageable = PageRequest.of(page, size);
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSuggester productSuggester;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Value("${catalog.suggest.max-results:20}")
+    private int maxSuggestions = 20;
+
+    @Value("${catalog.cache.products.max-entries:2000}")
+    private int productCacheSize;
+
+    @Value("${catalog.cache.category-listings.max-entries:200}")
+    private int categoryListingCacheSize;
+
+    private LruCache<Long, ProductDetailDto> productsById;
+
+    private LruCache<Long, List<ProductCardDto>> productsByCategory;
+
+    @PostConstruct
+    void initCaches() {
+        // Callers get their own copies, so adding image variants to one never changes the cached value
+        productsById = new LruCache<Long, ProductDetailDto>("productsById", productCacheSize)
+                .copyWith(ProductDetailDto::new);
+        productsByCategory = new LruCache<Long, List<ProductCardDto>>("productsByCategory", categoryListingCacheSize)
+                .copyWith(cards -> cards.stream().map(ProductCardDto::new).toList());
+    }
+
+    public Page<ProductCardDto> getProducts(Integer page, Integer size, Long categoryId, String search, boolean fuzzy,
+                                            String sortBy) {
+        Pageable pageable = PageRequest.of(page, size, parseSort(sortBy));
+        if (search != null && !search.isBlank()) {
+            return searchProducts(search, fuzzy, categoryId, pageable);
         }
-        return productRepository.findProducts(categoryId, search, pageable);
+        Page<ProductCardDto> cards = productRepository.findProductCards(categoryId, pageable);
+        cards.forEach(this::addImageVariants);
+        return cards;
+    }
+
+    public CursorPage<ProductCardDto> getProductsAfter(String after, Integer size, Long categoryId, String search,
+                                                       boolean fuzzy, String sortBy) {
+        if (size == null || size <= 0) {
+            throw new BadRequestException("Size must be greater than zero");
+        }
+        ProductCursor cursor = after == null || after.isEmpty() ? null : ProductCursor.decode(after);
+        Sort sort = parseSort(sortBy);
+
+        if (search != null && !search.isBlank()) {
+            int offset = cursor == null ? 0 : cursor.getOffset();
+            if (cursor != null && !cursor.isSearch()) {
+                throw new BadRequestException("Cursor does not match this query");
+            }
+            List<Long> matches = productSearchIndex.search(search, categoryId, sort, fuzzy);
+            int from = Math.min(offset, matches.size());
+            int to = Math.min(from + size, matches.size());
+            String next = to < matches.size() ? ProductCursor.search(to).encode() : null;
+            return new CursorPage<>(loadInOrder(matches.subList(from, to)), size, next);
+        }
+
+        Sort.Order order = sort.isSorted() ? sort.iterator().next() : Sort.Order.asc("id");
+        ProductCursor.requireKeysetField(order.getProperty());
+        if (cursor != null && (cursor.isSearch() || !cursor.getField().equals(order.getProperty())
+                || cursor.getDirection() != order.getDirection())) {
+            throw new BadRequestException("Cursor does not match this query");
+        }
+
+        List<ProductCardDto> rows = productRepository.findCardsAfter(categoryId, order,
+                cursor == null ? null : cursor.getValue(), cursor == null ? null : cursor.getId(), size + 1);
+
+        String next = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            next = ProductCursor.keyset(order, rows.get(size - 1)).encode();
+        }
+        rows.forEach(this::addImageVariants);
+        return new CursorPage<>(rows, size, next);
+    }
+
+    /**
+     * One page of products matching the facet filter (and the search text, if any) along with
+     * the facet counts for that filter, all from the in-memory facet index; only the page's
+     * cards are read from the database.
+     */
+    public FacetedProductPage getFacetedProducts(ProductFacetIndex.Filter filter, String search, Integer page,
+                                                 Integer size, String sortBy) {
+        if (page == null || page < 0) {
+            throw new BadRequestException("Page must not be negative");
+        }
+        if (size == null || size <= 0) {
+            throw new BadRequestException("Size must be greater than zero");
+        }
+        List<Long> candidates = search == null || search.isBlank()
+                ? null : productSearchIndex.search(search, null, Sort.unsorted());
+        ProductFacetIndex.Result result = productFacetIndex.query(filter, candidates, parseSort(sortBy), page, size);
+        return new FacetedProductPage(loadInOrder(result.ids()), page, size, result.total(), result.facets());
+    }
+
+    /**
+     * Typeahead suggestions (products, brands and categories) with a word starting with the query.
+     */
+    public List<ProductSuggestion> suggest(String query, Integer limit) {
+        if (limit == null || limit <= 0 || limit > maxSuggestions) {
+            throw new BadRequestException("Limit must be between 1 and " + maxSuggestions);
+        }
+        return productSuggester.suggest(query, limit);
     }
 
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
-    public Optional<Product> getProductById(Long id) {
-        return productRepository.findById(id);
+    public Optional<ProductDetailDto> getProductById(Long id) {
+        return Optional.ofNullable(productsById.get(id, key -> productRepository.findDetailById(key)
+                .map(this::addImageVariants).orElse(null)));
     }
 
-    public List<Product> getProductsByCategory(Long categoryId) {
-        return productRepository.findByCategoryId(categoryId);
+    public List<ProductCardDto> getProductsByCategory(Long categoryId) {
+        return productsByCategory.get(categoryId, key -> {
+            List<ProductCardDto> cards = productRepository.findCardsByCategoryId(key);
+            cards.forEach(this::addImageVariants);
+            return cards;
+        });
     }
 
     public Product saveProduct(Product product) {
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        Long previousCategory = productSearchIndex.categoryOf(saved.getId());
+        productSearchIndex.index(saved);
+        productFacetIndex.index(saved);
+        productSuggester.index(saved);
+        inventoryLedger.set(saved.getId(), saved.getStock());
+        evictProduct(saved.getId(), previousCategory);
+        if (saved.getCategory() != null) {
+            productsByCategory.invalidate(saved.getCategory().getId());
+        }
+        return saved;
+    }
+
+    /**
+     * Brings the search index, inventory ledger and caches in line with a committed import
+     * chunk that was written with JDBC rather than through {@link #saveProduct}.
+     */
+    public void productsImported(List<Product> products) {
+        for (Product product : products) {
+            // The listing of the category an updated product moved out of
+            evictProduct(product.getId(), productSearchIndex.categoryOf(product.getId()));
+            productSearchIndex.index(product);
+            productFacetIndex.index(product);
+            productSuggester.index(product);
+            inventoryLedger.set(product.getId(), product.getStock());
+            productsByCategory.invalidate(product.getCategory().getId());
+        }
     }
 
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ResourceNotFoundException("Product not found");
         }
+        cartStore.removeProduct(id);
         productRepository.deleteById(id);
+        Long categoryId = productSearchIndex.categoryOf(id);
+        productSearchIndex.remove(id);
+        productFacetIndex.remove(id);
+        productSuggester.remove(id);
+        inventoryLedger.remove(id);
+        evictProduct(id, categoryId);
+    }
+
+    /**
+     * Drops cached products that embed the given category, after it was renamed or deleted.
+     * When the category was deleted its products went with it (cascade), so they are also
+     * removed from the search, facet and suggestion indexes, the inventory ledger and in-memory carts.
+     */
+    public void evictCategory(Long categoryId, boolean deleted) {
+        productsByCategory.invalidate(categoryId);
+        productsById.invalidateIf(product -> categoryId.equals(product.getCategoryId()));
+        if (deleted) {
+            productSearchIndex.idsInCategory(categoryId).forEach(id -> {
+                productSearchIndex.remove(id);
+                productFacetIndex.remove(id);
+                productSuggester.remove(id);
+                inventoryLedger.remove(id);
+                cartStore.removeProduct(id);
+            });
+        }
+    }
+
+    @EventListener
+    public void onStockFlushed(ProductStockFlushedEvent event) {
+        for (Long id : event.getProductIds()) {
+            evictProduct(id);
+            int available = inventoryLedger.available(id);
+            productSearchIndex.updateStock(id, available);
+            productFacetIndex.updateStock(id, available);
+        }
+    }
+
+    @EventListener
+    public void onImageVariantsReady(ProductImageVariantsReadyEvent event) {
+        String url = event.getImageUrl();
+        productsById.invalidateIf(product -> url.equals(product.getImageUrl()));
+        productsByCategory.invalidateIf(products -> products.stream().anyMatch(p -> url.equals(p.getImageUrl())));
+    }
+
+    public List<Map<String, Object>> cacheStats() {
+        return List.of(productsById.stats(), productsByCategory.stats());
+    }
+
+    private void evictProduct(Long id) {
+        evictProduct(id, productSearchIndex.categoryOf(id));
+    }
+
+    // The search index knows every product's category, so only that listing is dropped
+    private void evictProduct(Long id, Long categoryId) {
+        productsById.invalidate(id);
+        if (categoryId != null) {
+            productsByCategory.invalidate(categoryId);
+        }
+    }
+
+    private Sort parseSort(String sortBy) {
+        if (sortBy == null || sortBy.isEmpty()) {
+            return Sort.unsorted();
+        }
+        String[] sortParams = sortBy.split(",");
+        String field = sortParams[0];
+        Sort.Direction direction = sortParams.length > 1 && "desc".equalsIgnoreCase(sortParams[1])
+            ? Sort.Direction.DESC
+            : Sort.Direction.ASC;
+        return Sort.by(direction, field);
+    }
+
+    private Page<ProductCardDto> searchProducts(String search, boolean fuzzy, Long categoryId, Pageable pageable) {
+        List<Long> matches = productSearchIndex.search(search, categoryId, pageable.getSort(), fuzzy);
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(loadInOrder(matches.subList(from, to)), pageable, matches.size());
+    }
+
+    private List<ProductCardDto> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductCardDto> loaded = productRepository.findCardsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductCardDto::getId, Function.identity()));
+        List<ProductCardDto> content = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductCardDto product = loaded.get(id);
+            if (product != null) {
+                content.add(addImageVariants(product));
+            }
+        }
+        return content;
+    }
+
+    private ProductCardDto addImageVariants(ProductCardDto product) {
+        product.setThumbnailUrl(productImageService.variantUrl(product.getImageUrl(), ProductImageService.Variant.THUMBNAIL));
+        product.setCardImageUrl(productImageService.variantUrl(product.getImageUrl(), ProductImageService.Variant.CARD));
+        return product;
+    }
+
+    private ProductDetailDto addImageVariants(ProductDetailDto product) {
+        product.setThumbnailUrl(productImageService.variantUrl(product.getImageUrl(), ProductImageService.Variant.THUMBNAIL));
+        product.setCardImageUrl(productImageService.variantUrl(product.getImageUrl(), ProductImageService.Variant.CARD));
+        return product;
     }
 }
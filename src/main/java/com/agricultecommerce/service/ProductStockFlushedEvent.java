@@ -0,0 +1,20 @@
+package com.agricultecommerce.service;
+
+import java.util.List;
+
+/**
+ * Published by {@link InventoryLedger} for products whose {@code products.stock} was changed by
+ * committed checkouts, so read caches holding those products can drop them.
+ */
+public class ProductStockFlushedEvent {
+
+    private final List<Long> productIds;
+
+    public ProductStockFlushedEvent(List<Long> productIds) {
+        this.productIds = productIds;
+    }
+
+    public List<Long> getProductIds() {
+        return productIds;
+    }
+}
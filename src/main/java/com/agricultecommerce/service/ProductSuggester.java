@@ -0,0 +1,436 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.ProductSuggestion;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Typeahead over product names, brands and category names. Every word start of every
+ * suggestion is one key in a sorted {@code long[]} (suggestion index and character offset
+ * packed together), so the keys matching a prefix form a contiguous range found by binary
+ * search, and a max-weight segment tree over the keys yields the heaviest suggestions of that
+ * range without scanning it. A product weighs one plus its units sold; a brand or category
+ * weighs the sum of its products.
+ *
+ * <p>Lookups read an immutable snapshot. Catalog writes only update the source maps and mark
+ * the snapshot stale; the next {@link #refresh()} carries the sorted keys of unchanged
+ * suggestions over and sorts just the keys of new or renamed ones before merging them in.
+ */
+@Component
+public class ProductSuggester {
+
+    public enum Type { PRODUCT, BRAND, CATEGORY }
+
+    private static final Type[] TYPES = Type.values();
+
+    private static final int MAX_OFFSET = 0xFFFF;
+
+    private static final String UNITS_SOLD_SQL = "SELECT product_id, SUM(quantity) FROM order_items GROUP BY product_id";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Source> products = new HashMap<>();
+    private final Map<Long, String> categoryNames = new HashMap<>();
+    private Map<Long, Long> unitsSold = Map.of();
+    private boolean stale;
+
+    private final Object refreshLock = new Object();
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    private record Source(String name, String brand, Long categoryId) {
+    }
+
+    private record Entry(Type type, Long refId, String text, long weight) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        loadUnitsSold();
+        rebuild(productRepository.findAll());
+    }
+
+    public void rebuild(Collection<Product> catalog) {
+        synchronized (this) {
+            products.clear();
+            categoryNames.clear();
+            catalog.forEach(this::put);
+            stale = true;
+        }
+        refresh();
+    }
+
+    public synchronized void index(Product product) {
+        if (product != null && product.getId() != null) {
+            put(product);
+            stale = true;
+        }
+    }
+
+    public synchronized void remove(Long productId) {
+        if (products.remove(productId) != null) {
+            stale = true;
+        }
+    }
+
+    public synchronized void renameCategory(Long categoryId, String name) {
+        if (name != null && !name.equals(categoryNames.put(categoryId, name))) {
+            stale = true;
+        }
+    }
+
+    public synchronized void setUnitsSold(Map<Long, Long> unitsSold) {
+        this.unitsSold = Map.copyOf(unitsSold);
+        stale = true;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.suggest.popularity-refresh-ms:600000}",
+            initialDelayString = "${catalog.suggest.popularity-refresh-ms:600000}")
+    public void loadUnitsSold() {
+        Map<Long, Long> sold = new HashMap<>();
+        jdbcTemplate.query(UNITS_SOLD_SQL, rs -> {
+            sold.put(rs.getLong(1), rs.getLong(2));
+        });
+        setUnitsSold(sold);
+    }
+
+    /**
+     * Publishes a new snapshot if the catalog changed since the last one.
+     */
+    @Scheduled(fixedDelayString = "${catalog.suggest.refresh-ms:1000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            List<Entry> entries;
+            synchronized (this) {
+                if (!stale) {
+                    return;
+                }
+                entries = entries();
+                stale = false;
+            }
+            snapshot = Snapshot.build(entries, snapshot);
+        }
+    }
+
+    /**
+     * Up to {@code limit} suggestions with a word starting with {@code query}, heaviest first.
+     */
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        return snapshot.suggest(prefix, limit);
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("suggestions", current.texts.length);
+        stats.put("keys", current.keys.length);
+        stats.put("estimatedBytes", current.estimatedBytes());
+        return stats;
+    }
+
+    private void put(Product product) {
+        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+        if (categoryId != null && product.getCategory().getName() != null) {
+            categoryNames.put(categoryId, product.getCategory().getName());
+        }
+        products.put(product.getId(), new Source(product.getName(), product.getBrand(), categoryId));
+    }
+
+    private List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(products.size());
+        Map<String, String> brandTexts = new HashMap<>();
+        Map<String, Long> brandWeights = new HashMap<>();
+        Map<Long, Long> categoryWeights = new HashMap<>();
+        products.forEach((id, source) -> {
+            long weight = 1 + unitsSold.getOrDefault(id, 0L);
+            if (source.name() != null && !source.name().isBlank()) {
+                entries.add(new Entry(Type.PRODUCT, id, source.name(), weight));
+            }
+            if (source.brand() != null && !source.brand().isBlank()) {
+                // Brands are matched case-insensitively; the first spelling seen is shown
+                String key = source.brand().toLowerCase();
+                brandTexts.putIfAbsent(key, source.brand());
+                brandWeights.merge(key, weight, Long::sum);
+            }
+            if (source.categoryId() != null) {
+                categoryWeights.merge(source.categoryId(), weight, Long::sum);
+            }
+        });
+        brandWeights.forEach((key, weight) -> entries.add(new Entry(Type.BRAND, null, brandTexts.get(key), weight)));
+        categoryWeights.forEach((id, weight) -> {
+            String name = categoryNames.get(id);
+            if (name != null && !name.isBlank()) {
+                entries.add(new Entry(Type.CATEGORY, id, name, weight));
+            }
+        });
+        return entries;
+    }
+
+    static String normalize(String query) {
+        if (query == null) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder(query.length());
+        boolean space = false;
+        for (int i = 0; i < query.length(); i++) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = prefix.length() > 0;
+            } else if (prefix.length() > 0 || Character.isLetterOrDigit(c)) {
+                if (space) {
+                    prefix.append(' ');
+                    space = false;
+                }
+                prefix.append(Character.toLowerCase(c));
+            }
+        }
+        return prefix.toString();
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(new String[0], new byte[0], new long[0], new long[0], new long[0]);
+
+        final String[] texts;
+        final byte[] types;
+        final long[] refIds;
+        final long[] weights;
+        // (suggestion << 16 | offset) of every word start, ordered by the lower-cased text from that offset
+        final long[] keys;
+        // tree[leaves + i] = i; every inner node holds the heavier key of its two children, -1 for none
+        final int[] tree;
+        final int leaves;
+
+        Snapshot(String[] texts, byte[] types, long[] refIds, long[] weights, long[] keys) {
+            this.texts = texts;
+            this.types = types;
+            this.refIds = refIds;
+            this.weights = weights;
+            this.keys = keys;
+            this.leaves = Integer.highestOneBit(Math.max(1, keys.length) * 2 - 1);
+            this.tree = new int[leaves * 2];
+            Arrays.fill(tree, -1);
+            for (int i = 0; i < keys.length; i++) {
+                tree[leaves + i] = i;
+            }
+            for (int node = leaves - 1; node > 0; node--) {
+                tree[node] = heavier(tree[node * 2], tree[node * 2 + 1]);
+            }
+        }
+
+        static Snapshot build(List<Entry> entries, Snapshot previous) {
+            int n = entries.size();
+            String[] texts = new String[n];
+            byte[] types = new byte[n];
+            long[] refIds = new long[n];
+            long[] weights = new long[n];
+
+            Map<Object, Integer> previousByIdentity = new HashMap<>(previous.texts.length * 2);
+            for (int i = 0; i < previous.texts.length; i++) {
+                previousByIdentity.put(identity(TYPES[previous.types[i]], previous.refIds[i], previous.texts[i]), i);
+            }
+            int[] remap = new int[previous.texts.length];
+            Arrays.fill(remap, -1);
+            List<Integer> changed = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                Entry entry = entries.get(i);
+                texts[i] = entry.text();
+                types[i] = (byte) entry.type().ordinal();
+                refIds[i] = entry.refId() == null ? 0 : entry.refId();
+                weights[i] = entry.weight();
+                Integer old = previousByIdentity.get(identity(entry.type(), refIds[i], entry.text()));
+                if (old != null && previous.texts[old].equals(entry.text())) {
+                    remap[old] = i;
+                } else {
+                    changed.add(i);
+                }
+            }
+
+            // Keys of unchanged suggestions keep their relative order, only the rest need sorting
+            long[] carried = new long[previous.keys.length];
+            int carriedCount = 0;
+            for (long key : previous.keys) {
+                int moved = remap[suggestion(key)];
+                if (moved >= 0) {
+                    carried[carriedCount++] = pack(moved, offset(key));
+                }
+            }
+            List<Long> fresh = new ArrayList<>();
+            for (int i : changed) {
+                String text = texts[i];
+                for (int offset = 0; offset < text.length() && offset <= MAX_OFFSET; offset++) {
+                    if (Character.isLetterOrDigit(text.charAt(offset))
+                            && (offset == 0 || !Character.isLetterOrDigit(text.charAt(offset - 1)))) {
+                        fresh.add(pack(i, offset));
+                    }
+                }
+            }
+            fresh.sort((a, b) -> compareKeys(texts, a, b));
+
+            long[] keys = new long[carriedCount + fresh.size()];
+            int c = 0;
+            int f = 0;
+            for (int k = 0; k < keys.length; k++) {
+                if (f == fresh.size() || (c < carriedCount && compareKeys(texts, carried[c], fresh.get(f)) <= 0)) {
+                    keys[k] = carried[c++];
+                } else {
+                    keys[k] = fresh.get(f++);
+                }
+            }
+            return new Snapshot(texts, types, refIds, weights, keys);
+        }
+
+        List<ProductSuggestion> suggest(String prefix, int limit) {
+            int from = bound(prefix, false);
+            int to = bound(prefix, true);
+            if (from >= to) {
+                return List.of();
+            }
+            // Best-first over the segment tree nodes covering [from, to): a node's key outweighs its subtree
+            PriorityQueue<Integer> nodes = new PriorityQueue<>((a, b) -> tree[a] == tree[b] ? 0
+                    : heavier(tree[a], tree[b]) == tree[a] ? -1 : 1);
+            for (int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    nodes.add(l++);
+                }
+                if ((r & 1) == 1) {
+                    nodes.add(--r);
+                }
+            }
+            Set<Integer> seen = new HashSet<>();
+            List<ProductSuggestion> suggestions = new ArrayList<>(limit);
+            while (!nodes.isEmpty() && suggestions.size() < limit) {
+                int node = nodes.poll();
+                if (node >= leaves) {
+                    int i = suggestion(keys[tree[node]]);
+                    if (seen.add(i)) {
+                        Type type = TYPES[types[i]];
+                        suggestions.add(new ProductSuggestion(type.name(), texts[i], type == Type.BRAND ? null : refIds[i]));
+                    }
+                } else {
+                    for (int child = node * 2; child <= node * 2 + 1; child++) {
+                        if (tree[child] >= 0) {
+                            nodes.add(child);
+                        }
+                    }
+                }
+            }
+            return suggestions;
+        }
+
+        long estimatedBytes() {
+            // Compact (Latin-1) strings: 24-byte String + 16-byte array header + one byte per char
+            long bytes = 0;
+            for (String text : texts) {
+                bytes += 40 + text.length();
+            }
+            return bytes + 16L * 5 + 4L * texts.length + texts.length + 8L * refIds.length + 8L * weights.length
+                    + 8L * keys.length + 4L * tree.length;
+        }
+
+        // First key whose text sorts at or after the prefix, or (upper) after every text starting with it
+        private int bound(String prefix, boolean upper) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = comparePrefix(texts[suggestion(keys[mid])], offset(keys[mid]), prefix);
+                if (cmp < 0 || (upper && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int heavier(int a, int b) {
+            if (a < 0 || b < 0) {
+                return a < 0 ? b : a;
+            }
+            int x = suggestion(keys[a]);
+            int y = suggestion(keys[b]);
+            if (weights[x] != weights[y]) {
+                return weights[x] > weights[y] ? a : b;
+            }
+            if (texts[x].length() != texts[y].length()) {
+                return texts[x].length() < texts[y].length() ? a : b;
+            }
+            return a < b ? a : b;
+        }
+    }
+
+    private static Object identity(Type type, long refId, String text) {
+        return switch (type) {
+            case PRODUCT -> refId;
+            case CATEGORY -> -refId;
+            case BRAND -> text.toLowerCase();
+        };
+    }
+
+    private static long pack(int suggestion, int offset) {
+        return ((long) suggestion << 16) | offset;
+    }
+
+    private static int suggestion(long key) {
+        return (int) (key >>> 16);
+    }
+
+    private static int offset(long key) {
+        return (int) (key & MAX_OFFSET);
+    }
+
+    private static int compareKeys(String[] texts, long a, long b) {
+        String x = texts[suggestion(a)];
+        String y = texts[suggestion(b)];
+        int i = offset(a);
+        int j = offset(b);
+        while (i < x.length() && j < y.length()) {
+            char c = Character.toLowerCase(x.charAt(i++));
+            char d = Character.toLowerCase(y.charAt(j++));
+            if (c != d) {
+                return c - d;
+            }
+        }
+        return (x.length() - i) - (y.length() - j);
+    }
+
+    // Compares the text from offset with a lower-cased prefix, treating a text that starts with it as equal
+    private static int comparePrefix(String text, int offset, String prefix) {
+        for (int k = 0; k < prefix.length(); k++) {
+            if (offset + k >= text.length()) {
+                return -1;
+            }
+            char c = Character.toLowerCase(text.charAt(offset + k));
+            if (c != prefix.charAt(k)) {
+                return c - prefix.charAt(k);
+            }
+        }
+        return 0;
+    }
+}
@@ -1,10 +1,13 @@
 package com.agricultecommerce.service;
 
+import com.agricultecommerce.config.AuthenticatedUser;
 import com.agricultecommerce.entity.User;
 import com.agricultecommerce.exception.BadRequestException;
+import com.agricultecommerce.exception.ResourceNotFoundException;
 import com.agricultecommerce.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,15 +24,23 @@ public class UserService implements UserDetailsService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Value("${user.cache.ttl-ms:300000}")
+    private long cacheTtlMillis;
+
+    @Value("${user.cache.max-entries:10000}")
+    private int maxCachedUsers;
+
+    private LruCache<String, AuthenticatedUser> principals;
+
+    @PostConstruct
+    void initCache() {
+        principals = new LruCache<String, AuthenticatedUser>("principals", maxCachedUsers).expireAfterWrite(cacheTtlMillis);
+    }
+
     @Override
-    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .roles(user.getRole().name())
-                .build();
+    public AuthenticatedUser loadUserByUsername(String username) throws UsernameNotFoundException {
+        return principals.get(username, key -> AuthenticatedUser.from(userRepository.findByUsername(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + key))));
     }
 
     public User registerUser(User user) {
@@ -46,6 +57,23 @@ public class UserService implements UserDetailsService {
         return userRepository.save(user);
     }
 
+    public User changeRole(Long userId, User.Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        user.setRole(role);
+        User saved = userRepository.save(user);
+        evictUser(user.getUsername());
+        return saved;
+    }
+
+    public void evictUser(String username) {
+        principals.invalidate(username);
+    }
+
+    public User getReference(Long userId) {
+        return userRepository.getReferenceById(userId);
+    }
+
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -0,0 +1,18 @@
+-- Carts are read and written by CartStore over JDBC, not through JPA. This script runs after
+-- Hibernate has created or updated the mapped tables (spring.jpa.defer-datasource-initialization).
+CREATE TABLE IF NOT EXISTS carts (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT UNIQUE,
+    CONSTRAINT fk_carts_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+-- Item ids are handed out by CartStore before the row is written
+CREATE TABLE IF NOT EXISTS cart_items (
+    id BIGINT NOT NULL PRIMARY KEY,
+    cart_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    price DECIMAL(38, 2) NOT NULL,
+    CONSTRAINT fk_cart_items_cart FOREIGN KEY (cart_id) REFERENCES carts (id) ON DELETE CASCADE,
+    CONSTRAINT fk_cart_items_product FOREIGN KEY (product_id) REFERENCES products (id) ON DELETE CASCADE
+);
@@ -2,7 +2,7 @@
 const API_BASE = '/api';
 
 // Global State
-let currentPage = 0;
+let nextCursor = null;
 let currentCategory = null;
 let currentSearch = '';
 let token = localStorage.getItem('token');
@@ -44,6 +44,7 @@ document.addEventListener('DOMContentLoaded', () => {
     if (searchEl) {
         const debounced = debounce(() => searchProducts(), 300);
         searchEl.addEventListener('input', debounced);
+        searchEl.addEventListener('input', debounce(() => loadSuggestions(searchEl.value), 100));
         searchEl.addEventListener('keydown', (e) => {
             if (e.key === 'Enter') searchProducts();
         });
@@ -58,6 +59,27 @@ function debounce(fn, waitMs) {
     };
 }
 
+// Typeahead: fills the search box's datalist from /products/suggest
+function loadSuggestions(query) {
+    const list = document.getElementById('searchSuggestions');
+    if (!list) return;
+    if (!query.trim()) {
+        list.innerHTML = '';
+        return;
+    }
+    fetch(`${API_BASE}/products/suggest?q=${encodeURIComponent(query)}&limit=8`)
+        .then(res => res.ok ? res.json() : [])
+        .then(suggestions => {
+            list.innerHTML = '';
+            suggestions.forEach(s => {
+                const option = document.createElement('option');
+                option.value = s.text;
+                list.appendChild(option);
+            });
+        })
+        .catch(() => {});
+}
+
 // Auth Functions
 function checkAuth() {
     if (token && username) {
@@ -162,7 +184,6 @@ function loadCategories() {
 
 function filterByCategory(categoryId) {
     currentCategory = categoryId;
-    currentPage = 0;
     document.querySelectorAll('.category-btn').forEach(btn => btn.classList.remove('active'));
     event.target.classList.add('active');
     loadProducts();
@@ -174,23 +195,36 @@ const formatINR = (value) => {
     return new Intl.NumberFormat('en-IN', { style: 'currency', currency: 'INR' }).format(num);
 };
 
-// Products
+// Products (cursor paging: each page carries the token for the next one)
 function loadProducts() {
-    document.getElementById('loading').style.display = 'block';
+    nextCursor = null;
     document.getElementById('productsGrid').innerHTML = '';
+    fetchProductPage('');
+}
 
-    let url = `${API_BASE}/products?page=${currentPage}&size=12`;
+function loadMoreProducts() {
+    if (nextCursor) {
+        const after = nextCursor;
+        nextCursor = null;
+        fetchProductPage(after);
+    }
+}
+
+function fetchProductPage(after) {
+    document.getElementById('loading').style.display = 'block';
+
+    let url = `${API_BASE}/products?after=${encodeURIComponent(after)}&size=12`;
     if (currentCategory) url += `&categoryId=${currentCategory}`;
-    if (currentSearch) url += `&search=${encodeURIComponent(currentSearch)}`;
+    // Fuzzy search still ranks exact and prefix matches first, it only adds near misses
+    if (currentSearch) url += `&search=${encodeURIComponent(currentSearch)}&fuzzy=true`;
 
     fetch(url)
         .then(res => res.json())
         .then(data => {
             document.getElementById('loading').style.display = 'none';
-            displayProducts(data.content || data);
-            if (data.totalPages !== undefined) {
-                displayPagination(data);
-            }
+            displayProducts(data.content || data, after !== '');
+            nextCursor = data.nextCursor || null;
+            displayPagination();
         })
         .catch(err => {
             document.getElementById('loading').textContent = 'Error loading products (check console)';
@@ -198,15 +232,17 @@ function loadProducts() {
         });
 }
 
-function displayProducts(products) {
+function displayProducts(products, append) {
     const grid = document.getElementById('productsGrid');
     if (!products || products.length === 0) {
-        grid.innerHTML = '<div style="color:white;text-align:center;padding:2rem;">No products found</div>';
+        if (!append) {
+            grid.innerHTML = '<div style="color:white;text-align:center;padding:2rem;">No products found</div>';
+        }
         return;
     }
-    grid.innerHTML = products.map(product => `
+    const html = products.map(product => `
         <div class="product-card" onclick="showProductDetail(${product.id})">
-            <img src="${product.imageUrl || pickFallbackImage(product.id)}"
+            <img src="${product.cardImageUrl || product.imageUrl || pickFallbackImage(product.id)}"
                  alt="${product.name}"
                  class="product-image"
                  onerror="this.src='${pickFallbackImage(product.id)}'; this.onerror=null;">
@@ -232,27 +268,35 @@ function displayProducts(products) {
             </div>
         </div>
     `).join('');
+    if (append) {
+        grid.insertAdjacentHTML('beforeend', html);
+    } else {
+        grid.innerHTML = html;
+    }
 }
 
-function displayPagination(pageData) {
+// Infinite scroll: fetch the next page when the "Load more" button scrolls into view
+const loadMoreObserver = 'IntersectionObserver' in window
+    ? new IntersectionObserver(entries => {
+        if (entries.some(entry => entry.isIntersecting)) loadMoreProducts();
+    })
+    : null;
+
+function displayPagination() {
     const pagination = document.getElementById('pagination');
     pagination.innerHTML = '';
-    
-    for (let i = 0; i < pageData.totalPages; i++) {
-        const btn = document.createElement('button');
-        btn.textContent = i + 1;
-        btn.className = i === currentPage ? 'active' : '';
-        btn.onclick = () => {
-            currentPage = i;
-            loadProducts();
-        };
-        pagination.appendChild(btn);
-    }
+    if (loadMoreObserver) loadMoreObserver.disconnect();
+    if (!nextCursor) return;
+
+    const btn = document.createElement('button');
+    btn.textContent = 'Load more';
+    btn.onclick = loadMoreProducts;
+    pagination.appendChild(btn);
+    if (loadMoreObserver) loadMoreObserver.observe(btn);
 }
 
 function searchProducts() {
     currentSearch = document.getElementById('searchInput').value;
-    currentPage = 0;
     loadProducts();
 }
 
@@ -500,6 +544,8 @@ function buyNow(productId) {
 }
 
 // Orders
+let ordersCursor = null;
+
 function showOrders() {
     if (!token) {
         alert('Please login first');
@@ -507,28 +553,40 @@ function showOrders() {
         return;
     }
 
-    fetch(`${API_BASE}/orders`, {
+    document.getElementById('ordersList').innerHTML = '';
+    loadOrders(null);
+    document.getElementById('ordersModal').style.display = 'block';
+}
+
+function loadOrders(after) {
+    let url = `${API_BASE}/orders?size=10`;
+    if (after) url += `&after=${encodeURIComponent(after)}`;
+
+    fetch(url, {
         headers: { 'Authorization': `Bearer ${token}` }
     })
     .then(res => res.json())
-    .then(orders => {
-        const modal = document.getElementById('ordersModal');
+    .then(page => {
         const list = document.getElementById('ordersList');
-        
-        if (orders.length === 0) {
+        const moreBtn = document.getElementById('ordersMore');
+        if (moreBtn) moreBtn.remove();
+        ordersCursor = page.nextCursor || null;
+
+        if (!after && page.content.length === 0) {
             list.innerHTML = '<p>No orders found</p>';
-        } else {
-            list.innerHTML = orders.map(order => `
+            return;
+        }
+        list.insertAdjacentHTML('beforeend', page.content.map(order => `
                 <div style="border: 1px solid #e0e0e0; padding: 1rem; margin: 1rem 0; border-radius: 8px;">
                     <strong>Order #${order.id}</strong><br>
                     <span>Date: ${new Date(order.orderDate).toLocaleDateString()}</span><br>
                     <span>Status: ${order.status}</span><br>
                     <span>Total: $${order.totalAmount.toFixed(2)}</span>
                 </div>
-            `).join('');
+            `).join(''));
+        if (ordersCursor) {
+            list.insertAdjacentHTML('beforeend', '<button id="ordersMore" onclick="loadOrders(ordersCursor)">Load more</button>');
         }
-        
-        modal.style.display = 'block';
     });
 }
 
@@ -0,0 +1,62 @@
+package com.agricultecommerce.config;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTests {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = newJwtUtil(86400000L, 2);
+    }
+
+    @Test
+    void verifiesOnceAndServesRepeatsFromCache() {
+        String token = jwtUtil.generateToken("farmer");
+
+        Claims first = jwtUtil.getValidClaims(token);
+        assertEquals("farmer", first.getSubject());
+        assertSame(first, jwtUtil.getValidClaims(token));
+        assertTrue(jwtUtil.validateToken(token, "farmer"));
+        assertFalse(jwtUtil.validateToken(token, "someone-else"));
+        assertEquals(1, jwtUtil.cachedTokenCount());
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        String token = jwtUtil.generateToken("farmer");
+        assertNull(jwtUtil.getValidClaims(token.substring(0, token.length() - 2) + "xx"));
+        assertNull(jwtUtil.getValidClaims("garbage"));
+
+        JwtUtil expiring = newJwtUtil(-1000L, 2);
+        assertNull(expiring.getValidClaims(expiring.generateToken("farmer")));
+        assertEquals(0, expiring.cachedTokenCount());
+    }
+
+    @Test
+    void staysWithinCacheBound() {
+        for (int i = 0; i < 5; i++) {
+            jwtUtil.getValidClaims(jwtUtil.generateToken("user" + i));
+        }
+        assertEquals(2, jwtUtil.cachedTokenCount());
+    }
+
+    private static JwtUtil newJwtUtil(long expiration, int maxEntries) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", "mySecretKeymySecretKeymySecretKeymySecretKeymySecretKey");
+        ReflectionTestUtils.setField(util, "expiration", expiration);
+        ReflectionTestUtils.setField(util, "maxCachedTokens", maxEntries);
+        util.init();
+        return util;
+    }
+}
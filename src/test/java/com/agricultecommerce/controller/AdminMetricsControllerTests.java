@@ -0,0 +1,52 @@
+package com.agricultecommerce.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AdminMetricsControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void routesRepositoriesAndTheJwtFilterAreTimed() throws Exception {
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/products/999999")).andExpect(status().isNotFound());
+
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(body).get("token").asText();
+
+        String metrics = mockMvc.perform(get("/api/admin/metrics/prometheus").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(metrics.contains("http_server_requests_seconds_count{route=\"GET /api/categories\"}"), metrics);
+        assertTrue(metrics.contains("http_server_requests_seconds{route=\"GET /api/products/{id}\",quantile=\"0.99\"}"), metrics);
+        assertTrue(metrics.contains("repository_calls_seconds_count{method=\"ProductRepository.findDetailById\"}"), metrics);
+        assertTrue(metrics.contains("jwt_filter_seconds_count{stage=\"authenticate\"}"), metrics);
+    }
+
+    @Test
+    void metricsAreAdminOnly() throws Exception {
+        mockMvc.perform(get("/api/admin/metrics")).andExpect(status().isUnauthorized());
+    }
+}
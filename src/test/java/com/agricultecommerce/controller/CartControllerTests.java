@@ -0,0 +1,85 @@
+package com.agricultecommerce.controller;
+
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CartControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void cartCallsResolveTheCallerFromTheCachedPrincipal() throws Exception {
+        String token = registerAndLogin("cartshopper");
+        Product product = productRepository.findAll().get(0);
+
+        mockMvc.perform(post("/api/cart/add")
+                        .header("Authorization", "Bearer " + token)
+                        .param("productId", product.getId().toString())
+                        .param("quantity", "1"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/cart").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cartItems[0].product.id").value(product.getId()));
+    }
+
+    @Test
+    void roleChangeTakesEffectForExistingTokens() throws Exception {
+        String token = registerAndLogin("promoted");
+        mockMvc.perform(get("/api/admin/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        User user = userService.findByUsername("promoted").orElseThrow();
+        String adminToken = login("admin", "admin123");
+        mockMvc.perform(put("/api/admin/users/" + user.getId() + "/role")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .param("role", "ADMIN"))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/admin/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private String registerAndLogin(String username) throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"email\":\"" + username + "@example.com\",\"password\":\"secret123\"}"))
+                .andExpect(status().isOk());
+        return login(username, "secret123");
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+}
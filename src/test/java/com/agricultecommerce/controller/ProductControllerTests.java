@@ -0,0 +1,211 @@
+package com.agricultecommerce.controller;
+
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.agricultecommerce.controller.ProductControllerTests$CapturingInspector")
+@AutoConfigureMockMvc
+class ProductControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void cursorPagingWalksTheWholeCatalogInSortOrder() throws Exception {
+        List<Long> expected = productRepository.findAll(Sort.by(Sort.Direction.DESC, "price")
+                        .and(Sort.by(Sort.Direction.DESC, "id"))).stream()
+                .map(Product::getId)
+                .toList();
+
+        List<Long> walked = new ArrayList<>();
+        String after = "";
+        do {
+            String body = mockMvc.perform(get("/api/products")
+                            .param("after", after)
+                            .param("size", "7")
+                            .param("sortBy", "price,desc"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalElements").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            page.get("content").forEach(product -> walked.add(product.get("id").asLong()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (after != null);
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, walked);
+    }
+
+    @Test
+    void facetedListingFiltersAndCountsFromTheIndex() throws Exception {
+        List<Product> all = productRepository.findAll();
+        long fieldking = all.stream().filter(p -> "Fieldking".equals(p.getBrand())).count();
+        long indian = all.stream().filter(p -> "India".equals(p.getOrigin())).count();
+
+        String body = mockMvc.perform(get("/api/products/facets").param("brand", "Fieldking").param("size", "2")
+                        .param("sortBy", "price,asc"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode page = objectMapper.readTree(body);
+
+        assertEquals(fieldking, page.get("totalElements").asLong());
+        assertEquals(2, page.get("content").size());
+        page.get("content").forEach(product -> assertEquals("Fieldking", product.get("brand").asText()));
+        assertTrue(page.get("content").get(0).get("price").decimalValue()
+                .compareTo(page.get("content").get(1).get("price").decimalValue()) <= 0);
+        // The brand facet ignores the brand filter itself, so other brands keep their counts
+        assertTrue(page.get("facets").get("brand").size() > 1);
+        page.get("facets").get("origin").forEach(origin -> {
+            if (origin.get("value").asText().equals("India")) {
+                assertEquals(fieldking, origin.get("count").asLong());
+            }
+        });
+
+        String unfiltered = mockMvc.perform(get("/api/products/facets").param("origin", "India"))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(indian, objectMapper.readTree(unfiltered).get("totalElements").asLong());
+    }
+
+    @Test
+    void fuzzySearchIsOptIn() throws Exception {
+        long fieldking = productRepository.findAll().stream().filter(p -> "Fieldking".equals(p.getBrand())).count();
+
+        mockMvc.perform(get("/api/products").param("search", "fieldkng"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(0));
+        mockMvc.perform(get("/api/products").param("search", "fieldkng").param("fuzzy", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(fieldking));
+    }
+
+    @Test
+    void suggestsBrandsAndProductsByWordPrefix() throws Exception {
+        String body = mockMvc.perform(get("/api/products/suggest").param("q", "fieldk").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode suggestions = objectMapper.readTree(body);
+
+        assertTrue(suggestions.size() > 0 && suggestions.size() <= 5);
+        assertTrue(StreamSupport.stream(suggestions.spliterator(), false).anyMatch(suggestion ->
+                suggestion.get("type").asText().equals("BRAND") && suggestion.get("text").asText().equals("Fieldking")));
+
+        mockMvc.perform(get("/api/products/suggest").param("q", "fieldk").param("limit", "100"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void rejectsCursorFromADifferentSort() throws Exception {
+        String body = mockMvc.perform(get("/api/products").param("after", "").param("size", "2").param("sortBy", "name"))
+                .andReturn().getResponse().getContentAsString();
+        String next = objectMapper.readTree(body).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/products").param("after", next).param("sortBy", "price"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listingSelectsOnlyCardColumnsWithoutLoadingAssociations() throws Exception {
+        CapturingInspector.STATEMENTS.clear();
+        mockMvc.perform(get("/api/products").param("size", "12").param("sortBy", "price,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].categoryName").exists())
+                .andExpect(jsonPath("$.content[0].description").doesNotExist());
+
+        List<String> statements = List.copyOf(CapturingInspector.STATEMENTS);
+        // one page select plus the count query; no per-row category, cart or order lookups
+        assertEquals(2, statements.size(), statements.toString());
+        for (String sql : statements) {
+            String lower = sql.toLowerCase(Locale.ROOT);
+            assertFalse(lower.contains("description"), sql);
+            assertFalse(lower.contains("specifications"), sql);
+            assertFalse(lower.contains("cart_items") || lower.contains("order_items"), sql);
+        }
+        assertTrue(statements.stream().anyMatch(sql -> sql.toLowerCase(Locale.ROOT).contains("count(")));
+    }
+
+    @Test
+    void catalogReadsAnswerIfNoneMatchWithNotModifiedUntilTheRowsChange() throws Exception {
+        Product product = productRepository.findAll(Sort.by("id")).get(1);
+        String path = "/api/products/" + product.getId();
+        String etag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag != null && etag.startsWith("\"") && !etag.startsWith("W/"), etag);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        String listing = mockMvc.perform(get("/api/products").param("size", "5"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/products").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, listing))
+                .andExpect(status().isNotModified());
+        String categories = mockMvc.perform(get("/api/categories"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/categories").header(HttpHeaders.IF_NONE_MATCH, categories))
+                .andExpect(status().isNotModified());
+
+        product.setStock(product.getStock() + 1);
+        productService.saveProduct(product);
+        String changed = mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(product.getStock()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, changed);
+        mockMvc.perform(get("/api/products").param("size", "5").header(HttpHeaders.IF_NONE_MATCH, listing))
+                .andExpect(status().isOk());
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.CartItemDto;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "cart.store.flush-interval-ms=3600000")
+class CartStoreTests {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void editsStayInMemoryUntilOneCoalescedFlush() {
+        User user = newUser("cart-coalesce");
+        List<Product> products = productRepository.findAll();
+        Long first = products.get(0).getId();
+        Long second = products.get(1).getId();
+
+        cartService.addItemToCart(user.getId(), first, 1);
+        CartItemDto item = cartService.addItemToCart(user.getId(), first, 1);
+        CartItemDto other = cartService.addItemToCart(user.getId(), second, 2);
+        cartService.updateCartItemQuantity(user.getId(), item.getId(), 3);
+        cartService.removeItemFromCart(user.getId(), other.getId());
+
+        assertEquals(1, cartService.getCart(user.getId()).getCartItems().size());
+        assertTrue(rows(user).isEmpty());
+
+        cartStore.flush();
+        List<Map<String, Object>> rows = rows(user);
+        assertEquals(1, rows.size());
+        assertEquals(item.getId(), ((Number) rows.get(0).get("ID")).longValue());
+        assertEquals(3, ((Number) rows.get(0).get("QUANTITY")).intValue());
+        assertEquals(0, cartStore.dirtyCount());
+    }
+
+    @Test
+    void checkoutReadsTheInMemoryCartAndFlushesItsRemoval() {
+        User user = newUser("cart-checkout");
+        Long productId = productRepository.findAll().get(2).getId();
+        cartService.addItemToCart(user.getId(), productId, 1);
+        cartStore.flush();
+        assertEquals(1, rows(user).size());
+
+        orderService.createOrderFromCart(user, "Plot 7, Village Road");
+
+        assertTrue(cartService.getCart(user.getId()).getCartItems().isEmpty());
+        assertTrue(rows(user).isEmpty());
+    }
+
+    @Test
+    void aCartThatFailsToWriteDoesNotHoldBackTheBatch() {
+        User good = newUser("cart-good");
+        User bad = newUser("cart-bad");
+        List<Product> products = productRepository.findAll();
+        cartService.addItemToCart(good.getId(), products.get(3).getId(), 1);
+        cartService.addItemToCart(bad.getId(), products.get(4).getId(), 2);
+        // A line for a product that is gone from the table fails the cart_items foreign key
+        cartStore.update(bad.getId(), lines -> {
+            long itemId = cartStore.newItemId();
+            return lines.put(itemId, new CartStore.Line(itemId, Long.MAX_VALUE, 1, BigDecimal.ONE));
+        });
+
+        cartStore.flush();
+        assertEquals(1, rows(good).size());
+        assertEquals(1, cartService.getCart(bad.getId()).getCartItems().size());
+
+        cartStore.flush();
+        List<Map<String, Object>> rows = rows(bad);
+        assertEquals(1, rows.size());
+        assertEquals(2, ((Number) rows.get(0).get("QUANTITY")).intValue());
+        assertEquals(0, cartStore.dirtyCount());
+        assertEquals(0, cartStore.quarantinedCount());
+    }
+
+    @Test
+    void aCartThatKeepsFailingStaysInMemoryUnderEvictionPressure() {
+        User bad = newUser("cart-failing");
+        Long productId = productRepository.findAll().get(5).getId();
+        // The product exists, so the line is kept; the missing price fails the NOT NULL column
+        long itemId = cartStore.update(bad.getId(), lines -> {
+            long id = cartStore.newItemId();
+            lines.put(id, new CartStore.Line(id, productId, 1, null));
+            return id;
+        });
+        cartStore.flush();
+        assertEquals(1, cartStore.quarantinedCount());
+
+        ReflectionTestUtils.setField(cartStore, "maxEntries", 1);
+        try {
+            for (int i = 0; i < 5; i++) {
+                cartStore.snapshot(newUser("cart-pressure-" + i).getId());
+            }
+            cartStore.flush();
+
+            assertEquals(List.of(itemId), cartStore.snapshot(bad.getId()).lines().stream().map(CartStore.Line::itemId).toList());
+            assertEquals(1, cartStore.quarantinedCount());
+            assertTrue(rows(bad).isEmpty());
+        } finally {
+            ReflectionTestUtils.setField(cartStore, "maxEntries", 10000);
+        }
+
+        cartStore.update(bad.getId(), lines -> lines.computeIfPresent(itemId,
+                (id, line) -> new CartStore.Line(id, productId, 1, BigDecimal.TEN)));
+        cartStore.flush(bad.getId());
+        assertEquals(1, rows(bad).size());
+        assertEquals(0, cartStore.dirtyCount());
+        assertEquals(0, cartStore.quarantinedCount());
+    }
+
+    private List<Map<String, Object>> rows(User user) {
+        return jdbcTemplate.queryForList("SELECT i.id, i.quantity FROM cart_items i JOIN carts c ON c.id = i.cart_id " +
+                "WHERE c.user_id = ?", user.getId());
+    }
+
+    private User newUser(String username) {
+        return userRepository.save(new User(null, username, username + "@example.com", "x", User.Role.USER));
+    }
+}
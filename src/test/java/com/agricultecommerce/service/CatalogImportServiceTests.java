@@ -0,0 +1,98 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.CatalogImportResult;
+import com.agricultecommerce.dto.ProductDetailDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "catalog.import.chunk-size=2")
+class CatalogImportServiceTests {
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void csvRowsAreUpsertedBySkuAndBadRowsReported() throws IOException {
+        String csv = "sku,name,price,stock,category,description\r\n" +
+                "IMP-1,Zorblax Sprayer,1200.50,4,Spare Parts,\"Tank, 16L\"\r\n" +
+                "IMP-2,Zorblax Nozzle,abc,4,Spare Parts,\r\n" +
+                "IMP-3,Zorblax Filter,15,9,No Such Category,\r\n" +
+                "IMP-4,\"Zorblax \"\"Pro\"\" Belt\",30,2,spare parts,\"two\nlines\"\r\n" +
+                "IMP-5,Zorblax Blade,12,1\r\n";
+
+        CatalogImportResult first = catalogImportService.importCsv(stream(csv));
+        assertEquals(5, first.getRowsRead());
+        assertEquals(2, first.getInserted());
+        assertEquals(3, first.getFailed());
+        assertEquals(3, first.getErrors().get(0).getLine());
+        assertEquals("IMP-3", first.getErrors().get(1).getSku());
+        assertEquals(7, first.getErrors().get(2).getLine());
+
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'IMP-4'", Long.class);
+        ProductDetailDto belt = productService.getProductById(id).orElseThrow();
+        assertEquals("Zorblax \"Pro\" Belt", belt.getName());
+        assertEquals("two\nlines", belt.getDescription());
+
+        CatalogImportResult second = catalogImportService.importCsv(stream("sku,name,price,stock,category\nIMP-4,Zorblax Belt,30,25,Spare Parts\n"));
+        assertEquals(1, second.getUpdated());
+        assertEquals(0, second.getInserted());
+        assertEquals(25, inventoryLedger.available(id));
+        assertEquals("Zorblax Belt", productService.getProductById(id).orElseThrow().getName());
+        assertEquals(2, productSearchIndex.search("zorblax", null, null).size());
+    }
+
+    @Test
+    void repeatedSkusAreWrittenInOrderAndCounted() throws IOException {
+        String csv = "sku,name,price,stock,category\n" +
+                "IMP-D1,Vexmoor Sickle,90,1,Spare Parts\n" +
+                "IMP-D1,Vexmoor Sickle,90,2,Spare Parts\n" +
+                "IMP-D1,Vexmoor Sickle,95,3,Spare Parts\n";
+
+        CatalogImportResult result = catalogImportService.importCsv(stream(csv));
+        assertEquals(3, result.getRowsRead());
+        assertEquals(1, result.getInserted());
+        assertEquals(2, result.getUpdated());
+        assertEquals(0, result.getFailed());
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM products WHERE sku = 'IMP-D1'", Long.class);
+        assertEquals(3, inventoryLedger.available(id));
+    }
+
+    @Test
+    void jsonLinesAreImported() throws IOException {
+        String jsonl = "{\"sku\":\"IMP-J1\",\"name\":\"Quillmor Pump\",\"price\":499.99,\"stock\":3,\"category\":\"Irrigation Machinery\"}\n" +
+                "not json\n" +
+                "\n" +
+                "{\"sku\":\"IMP-J2\",\"name\":\"Quillmor Hose\",\"price\":\"20\",\"stock\":8,\"category\":\"Irrigation Machinery\",\"brand\":\"Quillmor\"}\n";
+
+        CatalogImportResult result = catalogImportService.importJsonLines(stream(jsonl));
+        assertEquals(3, result.getRowsRead());
+        assertEquals(2, result.getInserted());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals(2, productSearchIndex.search("quillmor", null, null).size());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.agricultecommerce.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InventoryLedgerTests {
+
+    private InventoryLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new InventoryLedger();
+        ledger.restore(Map.of(1L, 100, 2L, 5, 3L, 0));
+    }
+
+    @Test
+    void reservesAllLinesOrNone() {
+        assertEquals(List.of(3L), ledger.reserve(Map.of(1L, 10, 3L, 1)));
+        assertEquals(100, ledger.available(1L));
+
+        assertTrue(ledger.reserve(Map.of(1L, 10, 2L, 5)).isEmpty());
+        assertEquals(90, ledger.available(1L));
+        assertEquals(0, ledger.available(2L));
+        assertEquals(2, ledger.changedCount());
+
+        ledger.flush();
+        assertEquals(0, ledger.changedCount());
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            attempts.add(pool.submit(() -> ledger.reserve(Map.of(1L, 1, 2L, 1)).isEmpty()));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get()) {
+                succeeded++;
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(5, succeeded);
+        assertEquals(95, ledger.available(1L));
+        assertEquals(0, ledger.available(2L));
+    }
+
+    @Test
+    void adminSetOverridesCount() {
+        ledger.reserve(Map.of(1L, 4));
+        ledger.set(1L, 40);
+        assertEquals(40, ledger.available(1L));
+
+        ledger.release(Map.of(1L, 2));
+        assertEquals(42, ledger.available(1L));
+    }
+}
@@ -0,0 +1,96 @@
+package com.agricultecommerce.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LruCacheTests {
+
+    @Test
+    void readsThroughAndCountsHitsAndMisses() {
+        LruCache<Long, String> cache = new LruCache<>("test", 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        Function<Long, String> loader = id -> {
+            loads.incrementAndGet();
+            return "p" + id;
+        };
+
+        assertEquals("p1", cache.get(1L, loader));
+        assertEquals("p1", cache.get(1L, loader));
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        LruCache<Long, String> cache = new LruCache<>("test", 2);
+        cache.get(1L, id -> "a");
+        cache.get(2L, id -> "b");
+        cache.get(1L, id -> "a");
+        cache.get(3L, id -> "c");
+
+        assertNull(cache.peek(2L));
+        assertEquals("a", cache.peek(1L));
+        assertEquals(1L, cache.stats().get("evictions"));
+    }
+
+    @Test
+    void doesNotCacheMissingValuesOrLoadsThatRaceAnInvalidation() {
+        LruCache<Long, String> cache = new LruCache<>("test", 10);
+        assertNull(cache.get(1L, id -> null));
+        assertNull(cache.peek(1L));
+
+        cache.get(2L, id -> {
+            cache.invalidate(2L);
+            return "stale";
+        });
+        assertNull(cache.peek(2L));
+
+        cache.get(3L, id -> "fresh");
+        cache.invalidateIf("fresh"::equals);
+        assertNull(cache.peek(3L));
+    }
+
+    @Test
+    void invalidationOnlyCancelsLoadsItCouldAffect() {
+        LruCache<Long, String> cache = new LruCache<>("test", 10);
+        cache.get(1L, id -> {
+            cache.invalidate(2L);
+            cache.invalidateIf("other"::equals);
+            return "one";
+        });
+        assertEquals("one", cache.peek(1L));
+
+        cache.get(2L, id -> {
+            cache.invalidateIf(value -> value.startsWith("tw"));
+            return "two";
+        });
+        assertNull(cache.peek(2L));
+    }
+
+    @Test
+    void expiresEntriesAtTheirDeadline() {
+        LruCache<Long, String> cache = new LruCache<Long, String>("test", 10)
+                .expireAt(value -> value.equals("stale") ? System.currentTimeMillis() - 1 : Long.MAX_VALUE);
+        assertEquals("stale", cache.get(1L, id -> "stale"));
+        assertNull(cache.peek(1L));
+        cache.get(2L, id -> "live");
+        assertEquals("live", cache.peek(2L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void handsOutCopiesWhenConfigured() {
+        LruCache<Long, StringBuilder> cache = new LruCache<Long, StringBuilder>("test", 10).copyWith(StringBuilder::new);
+        cache.get(1L, id -> new StringBuilder("a")).append("-changed");
+        cache.get(1L, id -> new StringBuilder("b")).append("-changed");
+
+        assertEquals("a", cache.peek(1L).toString());
+    }
+}
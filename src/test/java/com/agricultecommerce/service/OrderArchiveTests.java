@@ -0,0 +1,126 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.CursorPage;
+import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.entity.OrderItem;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A database of its own so the archived orders cannot show up in other tests' queries
+@SpringBootTest(properties = {"orders.archive.dir=target/test-archive", "orders.archive.batch-size=2",
+        "spring.datasource.url=jdbc:h2:mem:archivedb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"})
+class OrderArchiveTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void clearArchive() throws Exception {
+        FileSystemUtils.deleteRecursively(Paths.get("target/test-archive"));
+    }
+
+    @Test
+    void coldOrdersMoveToMonthFilesAndLookupsFallBackToThem() throws Exception {
+        User user = userRepository.save(new User(null, "archive-buyer", "archive-buyer@example.com", "x", User.Role.USER));
+        Product product = productRepository.findAll().stream().filter(p -> p.getStock() >= 10).findFirst().orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+
+        Order delivered = placed(user, product, now.minusDays(500), Order.Status.DELIVERED);
+        Order cancelled = placed(user, product, now.minusDays(430), Order.Status.CANCELLED);
+        Order deliveredLater = placed(user, product, now.minusDays(400), Order.Status.DELIVERED);
+        Order stillPending = placed(user, product, now.minusDays(450), Order.Status.PENDING);
+        Order recent = placed(user, product, now.minusDays(3), Order.Status.DELIVERED);
+
+        assertEquals(3, orderArchiver.archive());
+        assertEquals(0, orderArchiver.archive());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?", Integer.class, user.getId()));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM archived_orders WHERE user_id = ?", Integer.class, user.getId()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_items WHERE order_id = ?", Integer.class, delivered.getId()));
+        assertTrue(orderArchive.monthFileCount() >= 2);
+
+        Order archived = orderService.getOrderById(cancelled.getId()).orElseThrow();
+        assertEquals(Order.Status.CANCELLED, archived.getStatus());
+        assertEquals(0, cancelled.getTotalAmount().compareTo(archived.getTotalAmount()));
+        assertEquals(cancelled.getShippingAddress(), archived.getShippingAddress());
+        OrderItem item = archived.getOrderItems().iterator().next();
+        assertEquals(product.getId(), item.getProduct().getId());
+        assertEquals(product.getName(), item.getProduct().getName());
+        assertEquals(2, item.getQuantity());
+        objectMapper.writeValueAsString(archived);
+
+        // History pages run across live and archived orders in (orderDate, id) order
+        List<Long> walked = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<Order> page = orderService.getOrderHistory(user.getId(), after, 2);
+            page.getContent().forEach(order -> walked.add(order.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+        assertEquals(List.of(recent.getId(), deliveredLater.getId(), cancelled.getId(), stillPending.getId(), delivered.getId()), walked);
+    }
+
+    @Test
+    void eachOrderIsWrittenOnceByItsBatchAndOnceByCompaction() throws Exception {
+        User user = userRepository.save(new User(null, "archive-bulk", "archive-bulk@example.com", "x", User.Role.USER));
+        Product product = productRepository.findAll().stream().filter(p -> p.getStock() >= 30).findFirst().orElseThrow();
+        LocalDateTime monthStart = LocalDateTime.now().minusDays(800).withDayOfMonth(1).withHour(0);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            orders.add(placed(user, product, monthStart.plusMinutes(i), Order.Status.DELIVERED));
+        }
+
+        long before = orderArchive.rowsWritten();
+        assertEquals(10, orderArchiver.archive());
+        // Five batches into one month: rewriting the month file per batch would write 2+4+...+10 = 30 rows
+        assertEquals(20, orderArchive.rowsWritten() - before);
+        assertEquals(0, orderArchive.segmentFileCount());
+
+        for (Order order : orders) {
+            assertEquals(order.getId(), orderService.getOrderById(order.getId()).orElseThrow().getId());
+        }
+    }
+
+    private Order placed(User user, Product product, LocalDateTime orderDate, Order.Status status) {
+        Order order = orderService.buyNow(user, product.getId(), 2, "Farm 9, River Road");
+        jdbcTemplate.update("UPDATE orders SET order_date = ?, status = ? WHERE id = ?",
+                Timestamp.valueOf(orderDate), status.name(), order.getId());
+        order.setOrderDate(orderDate);
+        return order;
+    }
+}
@@ -0,0 +1,138 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.entity.OrderEvent;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.exception.BadRequestException;
+import com.agricultecommerce.repository.OrderEventRepository;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A database of its own: dispatchers of other cached test contexts would otherwise drain these events
+@SpringBootTest(properties = {"orders.outbox.poll-interval-ms=20", "orders.outbox.retry-backoff-ms=20",
+        "spring.datasource.url=jdbc:h2:mem:outboxdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"})
+@Import(OrderEventDispatcherTests.HandlerConfig.class)
+class OrderEventDispatcherTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RecordingHandler handler;
+
+    @Test
+    void failedDeliveriesAreRetriedAndLaterEventsOfTheOrderWaitBehindThem() throws Exception {
+        User user = userRepository.save(new User(null, "outbox-flaky", "outbox-flaky@example.com", "x", User.Role.USER));
+        handler.failFirstPlacedAttemptFor(user.getId());
+        Product product = productRepository.findAll().get(2);
+
+        Order order = orderService.buyNow(user, product.getId(), 1, "Farm 3");
+        orderService.updateOrderStatus(order.getId(), Order.Status.CONFIRMED);
+
+        await(() -> handler.calls(order.getId()).size() >= 3);
+        assertEquals(List.of("PLACED failed", "PLACED", "STATUS_CHANGED PENDING->CONFIRMED"), handler.calls(order.getId()));
+        await(() -> orderEventRepository.findAll().stream().noneMatch(e -> e.getOrderId().equals(order.getId())));
+    }
+
+    @Test
+    void eventsAreOnlyWrittenWhenTheOrderChangeCommits() throws Exception {
+        User user = userRepository.save(new User(null, "outbox-rollback", "outbox-rollback@example.com", "x", User.Role.USER));
+        Product product = productRepository.findAll().get(2);
+
+        assertThrows(BadRequestException.class, () -> orderService.buyNow(user, product.getId(), 1_000_000, "Farm 4"));
+        Order order = orderService.buyNow(user, product.getId(), 1, "Farm 4");
+        orderService.updateOrderStatus(order.getId(), Order.Status.PENDING);
+
+        await(() -> !handler.calls(order.getId()).isEmpty());
+        Thread.sleep(200);
+        assertEquals(List.of("PLACED"), handler.calls(order.getId()));
+        assertEquals(1, handler.userIds().stream().filter(user.getId()::equals).count());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 200 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(25);
+        }
+        assertTrue(condition.getAsBoolean(), "Timed out waiting for order events");
+    }
+
+    @TestConfiguration
+    static class HandlerConfig {
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    static class RecordingHandler implements OrderEventHandler {
+
+        private final List<OrderEvent> seen = Collections.synchronizedList(new ArrayList<>());
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+        private final Set<Long> flakyUsers = ConcurrentHashMap.newKeySet();
+
+        void failFirstPlacedAttemptFor(Long userId) {
+            flakyUsers.add(userId);
+        }
+
+        List<String> calls(Long orderId) {
+            synchronized (calls) {
+                List<String> result = new ArrayList<>();
+                for (int i = 0; i < seen.size(); i++) {
+                    if (seen.get(i).getOrderId().equals(orderId)) {
+                        result.add(calls.get(i));
+                    }
+                }
+                return result;
+            }
+        }
+
+        List<Long> userIds() {
+            synchronized (calls) {
+                return seen.stream().map(OrderEvent::getUserId).toList();
+            }
+        }
+
+        @Override
+        public void handle(OrderEvent event) {
+            String call = event.getType() == OrderEvent.Type.PLACED ? "PLACED"
+                    : event.getType() + " " + event.getPreviousStatus() + "->" + event.getStatus();
+            boolean fail = event.getType() == OrderEvent.Type.PLACED && event.getAttempts() == 0
+                    && flakyUsers.contains(event.getUserId());
+            synchronized (calls) {
+                seen.add(event);
+                calls.add(fail ? call + " failed" : call);
+            }
+            if (fail) {
+                throw new IllegalStateException("simulated handler failure");
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class OrderExportServiceTests {
+
+    @Autowired
+    private OrderExportService orderExportService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ndjsonHasOneLinePerOrderAndHonoursFilters() throws Exception {
+        User user = userRepository.save(new User(null, "export-ndjson", "export-ndjson@example.com", "x", User.Role.USER));
+        Product product = productRepository.findAll().get(4);
+        Order cancelledOrder = orderService.buyNow(user, product.getId(), 2, "Farm 12, \"North\" Block");
+        orderService.buyNow(user, product.getId(), 1, "Farm 12");
+        orderService.updateOrderStatus(cancelledOrder.getId(), Order.Status.CANCELLED);
+
+        List<JsonNode> cancelled = ndjson(null, null, List.of(Order.Status.CANCELLED));
+        JsonNode exported = cancelled.stream().filter(o -> o.get("id").asLong() == cancelledOrder.getId()).findFirst().orElseThrow();
+        assertEquals("export-ndjson", exported.get("username").asText());
+        assertEquals(1, exported.get("items").size());
+        assertEquals(2, exported.get("items").get(0).get("quantity").asInt());
+        assertTrue(cancelled.stream().allMatch(o -> o.get("status").asText().equals("CANCELLED")));
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        assertTrue(ndjson(tomorrow, null, null).isEmpty());
+        assertTrue(ndjson(null, LocalDate.now(), null).size() >= 2);
+    }
+
+    @Test
+    void csvHasOneRowPerItemWithQuotedFields() throws Exception {
+        User user = userRepository.save(new User(null, "export-csv", "export-csv@example.com", "x", User.Role.USER));
+        Product product = productRepository.findAll().get(5);
+        Order order = orderService.buyNow(user, product.getId(), 3, "Farm 9, Ridge Road");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportCsv(null, null, null, out);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+
+        assertEquals(OrderExportService.CSV_HEADER, lines[0]);
+        String row = List.of(lines).stream().filter(line -> line.startsWith(order.getId() + ",")).findFirst().orElseThrow();
+        assertTrue(row.contains(",export-csv,\"Farm 9, Ridge Road\","), row);
+        assertTrue(row.contains("," + product.getId() + ","), row);
+    }
+
+    private List<JsonNode> ndjson(LocalDate from, LocalDate to, List<Order.Status> statuses) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        orderExportService.exportNdjson(from, to, statuses, out);
+        List<JsonNode> orders = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isEmpty()) {
+                orders.add(objectMapper.readTree(line));
+            }
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,142 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.CursorPage;
+import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.repository.OrderQueueQuery;
+import com.agricultecommerce.repository.OrderRepository;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+class OrderQueueTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private OrderRepository orderRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void queueFiltersUseTheCompositeIndexes() {
+        OrderQueueQuery byStatus = new OrderQueueQuery();
+        byStatus.setStatuses(List.of(Order.Status.PENDING));
+        byStatus.setFrom(LocalDate.now().atStartOfDay());
+        byStatus.setMinTotal(BigDecimal.TEN);
+        assertTrue(plan(byStatus).contains("IDX_ORDERS_STATUS_DATE"), plan(byStatus));
+
+        OrderQueueQuery byUser = new OrderQueueQuery();
+        byUser.setUserId(1L);
+        byUser.setOldestFirst(true);
+        assertTrue(plan(byUser).contains("IDX_ORDERS_USER_DATE"), plan(byUser));
+
+        OrderQueueQuery byDate = new OrderQueueQuery();
+        byDate.setFrom(LocalDate.now().atStartOfDay());
+        byDate.setTo(LocalDate.now().plusDays(1).atStartOfDay());
+        assertTrue(plan(byDate).contains("IDX_ORDERS_DATE"), plan(byDate));
+    }
+
+    @Test
+    void oldestFirstPagesWalkTheQueueInOrder() {
+        User user = userRepository.save(new User(null, "queue-walk", "queue-walk@example.com", "x", User.Role.USER));
+        Product product = productRepository.findAll().get(3);
+        List<Long> placed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            placed.add(orderService.buyNow(user, product.getId(), 1, "Farm " + i).getId());
+        }
+        orderService.updateOrderStatus(placed.get(2), Order.Status.SHIPPED);
+
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        do {
+            OrderQueueQuery query = new OrderQueueQuery();
+            query.setStatuses(List.of(Order.Status.PENDING));
+            query.setUserId(user.getId());
+            query.setOldestFirst(true);
+            CursorPage<Order> page = orderService.getOrderQueue(query, after, 2);
+            page.getContent().forEach(order -> {
+                assertEquals(Order.Status.PENDING, order.getStatus());
+                assertEquals(1, order.getOrderItems().size());
+                seen.add(order.getId());
+            });
+            after = page.getNextCursor();
+        } while (after != null);
+
+        assertEquals(List.of(placed.get(0), placed.get(1), placed.get(3), placed.get(4)), seen);
+
+        OrderQueueQuery newest = new OrderQueueQuery();
+        newest.setUserId(user.getId());
+        newest.setMaxTotal(BigDecimal.ZERO);
+        CursorPage<Order> none = orderService.getOrderQueue(newest, null, 10);
+        assertTrue(none.getContent().isEmpty());
+        assertNull(none.getNextCursor());
+    }
+
+    @Test
+    void queueCursorSkipsPagesWhoseOrdersAreGone() {
+        User user = userRepository.save(new User(null, "queue-gone", "queue-gone@example.com", "x", User.Role.USER));
+        Product product = productRepository.findAll().stream().filter(p -> p.getStock() >= 10).findFirst().orElseThrow();
+        List<Long> placed = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            placed.add(orderService.buyNow(user, product.getId(), 1, "Farm " + i).getId());
+        }
+        // Archived or deleted between the keyset query and the load: the whole first page
+        Set<Long> gone = Set.of(placed.get(0), placed.get(1));
+        doAnswer(invocation -> entityManager.createQuery("SELECT o FROM Order o WHERE o.id IN :ids", Order.class)
+                .setParameter("ids", invocation.getArgument(0)).getResultList().stream()
+                .filter(order -> !gone.contains(order.getId())).toList())
+                .when(orderRepository).findWithItemsByIdIn(anyCollection());
+
+        List<Long> seen = new ArrayList<>();
+        int pages = 0;
+        String after = null;
+        do {
+            OrderQueueQuery query = new OrderQueueQuery();
+            query.setUserId(user.getId());
+            query.setOldestFirst(true);
+            CursorPage<Order> page = orderService.getOrderQueue(query, after, 2);
+            page.getContent().forEach(order -> seen.add(order.getId()));
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(placed.subList(2, 5), seen);
+        assertEquals(3, pages);
+    }
+
+    private String plan(OrderQueueQuery query) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query.sql(), query.params(), String.class)).toUpperCase();
+    }
+}
@@ -0,0 +1,288 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.config.IdSequenceInitializer;
+import com.agricultecommerce.dto.CursorPage;
+import com.agricultecommerce.entity.Order;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.entity.User;
+import com.agricultecommerce.exception.BadRequestException;
+import com.agricultecommerce.repository.ProductRepository;
+import com.agricultecommerce.repository.ProductRepositoryImpl;
+import com.agricultecommerce.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderServiceTests {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdSequenceInitializer idSequenceInitializer;
+
+    @Autowired
+    private ProductRepositoryImpl productRepositoryImpl;
+
+    @Test
+    void checkoutStatementCountDoesNotGrowWithCartLines() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Product> products = productRepository.findAll();
+
+        // Warm-up order so every sequence pool is primed before measuring
+        checkout(statistics, newUser("batch-warmup"), products, 1);
+
+        long oneLine = checkout(statistics, newUser("batch-one"), products, 1);
+        long manyLines = checkout(statistics, newUser("batch-many"), products, 12);
+
+        // Allow for one extra sequence round trip when a pool runs out mid-order
+        assertTrue(manyLines - oneLine <= 2,
+                "12-line checkout used " + manyLines + " statements vs " + oneLine + " for one line");
+    }
+
+    @Test
+    void orderHistoryStatementCountDoesNotGrowWithHistory() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Product> products = productRepository.findAll();
+        User small = newUser("history-small");
+        placeOrders(small, products, 1, 1);
+        User large = newUser("history-large");
+        placeOrders(large, products, 8, 3);
+
+        long smallHistory = historyStatements(statistics, small, 1);
+        long largeHistory = historyStatements(statistics, large, 8);
+
+        // One keyset id query plus one fetch-joined load of orders, items, products and categories
+        assertEquals(2, smallHistory);
+        assertEquals(smallHistory, largeHistory);
+    }
+
+    @Test
+    void idSequencesAreMovedPastStoredIds() {
+        placeOrders(newUser("sequence-seed"), productRepository.findAll(), 1, 1);
+        long maxOrderId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders", Long.class);
+        long original = sequenceValue("ORDERS_SEQ");
+        try {
+            // As created by the schema update of a database whose orders used IDENTITY ids
+            jdbcTemplate.execute("ALTER SEQUENCE orders_seq RESTART WITH 1");
+            idSequenceInitializer.seedSequences();
+            assertEquals(maxOrderId + 50, sequenceValue("ORDERS_SEQ"));
+        } finally {
+            jdbcTemplate.execute("ALTER SEQUENCE orders_seq RESTART WITH " + original);
+        }
+    }
+
+    @Test
+    void orderHistoryCursorWalksNewestFirst() {
+        List<Product> products = productRepository.findAll();
+        User user = newUser("history-walk");
+        List<Long> placed = placeOrders(user, products, 5, 1);
+
+        List<Long> walked = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<Order> page = orderService.getOrderHistory(user.getId(), after, 2);
+            page.getContent().forEach(order -> walked.add(order.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+
+        assertEquals(placed.stream().sorted(Comparator.reverseOrder()).toList(), walked);
+    }
+
+    @Test
+    void orderHistoryCursorSkipsPagesWhoseOrdersAreGone() {
+        User user = newUser("history-gone");
+        List<Long> placed = placeOrders(user, productRepository.findAll(), 1, 1);
+        // Archived rows whose month file no longer has them, so a whole page loads nothing
+        for (long id = 1; id <= 3; id++) {
+            jdbcTemplate.update("INSERT INTO archived_orders (id, user_id, order_date, archived_at) VALUES (?, ?, ?, ?)",
+                    9_000_000_000L + id, user.getId(), LocalDateTime.of(1999, 1, (int) id, 12, 0), LocalDateTime.now());
+        }
+
+        List<Long> walked = new ArrayList<>();
+        int pages = 0;
+        String after = null;
+        do {
+            CursorPage<Order> page = orderService.getOrderHistory(user.getId(), after, 1);
+            page.getContent().forEach(order -> walked.add(order.getId()));
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(placed, walked);
+        assertEquals(4, pages);
+    }
+
+    @Test
+    void concurrentBuyNowNeverOversellsTheDatabase() throws Exception {
+        Product product = newProduct("Stress Seed", 20);
+        // A ledger that has drifted from the database, e.g. after a sale by another instance
+        inventoryLedger.set(product.getId(), 1000);
+        User user = newUser("stress-buyer");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            attempts.add(pool.submit(() -> {
+                try {
+                    orderService.buyNow(user, product.getId(), 1, "Plot 7, Village Road");
+                    return true;
+                } catch (BadRequestException e) {
+                    return false;
+                }
+            }));
+        }
+        int sold = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get()) {
+                sold++;
+            }
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(20, sold);
+        assertEquals(0, stock(product));
+        assertEquals(20, jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM order_items WHERE product_id = ?", Integer.class, product.getId()));
+        assertEquals(0, inventoryLedger.available(product.getId()));
+    }
+
+    @Test
+    void checkoutReportsEveryShortLineAndRollsBackTheRest() {
+        Product plenty = newProduct("Plenty Seed", 10);
+        Product scarceA = newProduct("Scarce Seed A", 1);
+        Product scarceB = newProduct("Scarce Seed B", 1);
+        User user = newUser("short-lines");
+        cartService.addItemToCart(user.getId(), plenty.getId(), 2);
+        cartService.addItemToCart(user.getId(), scarceA.getId(), 1);
+        cartService.addItemToCart(user.getId(), scarceB.getId(), 1);
+        // Sold elsewhere after the items went into the cart
+        jdbcTemplate.update("UPDATE products SET stock = 0 WHERE id IN (?, ?)", scarceA.getId(), scarceB.getId());
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> orderService.createOrderFromCart(user, "Plot 7, Village Road"));
+
+        assertEquals("Insufficient stock for Scarce Seed A, Scarce Seed B", e.getMessage());
+        assertEquals(10, stock(plenty));
+        assertEquals(10, inventoryLedger.available(plenty.getId()));
+        assertEquals(0, inventoryLedger.available(scarceA.getId()));
+    }
+
+    @Test
+    void checkoutDecrementsRowByRowWhenTheDriverHidesBatchCounts() {
+        Product plenty = newProduct("Rowwise Seed", 10);
+        Product scarce = newProduct("Rowwise Scarce Seed", 1);
+        User user = newUser("row-by-row");
+        // As with MySQL's rewriteBatchedStatements=true on the JDBC URL
+        ReflectionTestUtils.setField(productRepositoryImpl, "perRowUpdates", true);
+        try {
+            cartService.addItemToCart(user.getId(), plenty.getId(), 2);
+            cartService.addItemToCart(user.getId(), scarce.getId(), 1);
+            jdbcTemplate.update("UPDATE products SET stock = 0 WHERE id = ?", scarce.getId());
+
+            BadRequestException e = assertThrows(BadRequestException.class,
+                    () -> orderService.createOrderFromCart(user, "Plot 7, Village Road"));
+            assertEquals("Insufficient stock for Rowwise Scarce Seed", e.getMessage());
+            assertEquals(10, stock(plenty));
+
+            orderService.buyNow(user, plenty.getId(), 3, "Plot 7, Village Road");
+            assertEquals(7, stock(plenty));
+        } finally {
+            ReflectionTestUtils.setField(productRepositoryImpl, "perRowUpdates", false);
+        }
+    }
+
+    private Product newProduct(String name, int stock) {
+        Product product = new Product(null, name, name, BigDecimal.valueOf(12), stock);
+        product.setCategory(productRepository.findAll().get(0).getCategory());
+        product = productRepository.save(product);
+        inventoryLedger.set(product.getId(), stock);
+        return product;
+    }
+
+    private int stock(Product product) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM products WHERE id = ?", Integer.class, product.getId());
+    }
+
+    private long historyStatements(Statistics statistics, User user, int expectedOrders) throws Exception {
+        statistics.clear();
+        CursorPage<Order> page = orderService.getOrderHistory(user.getId(), null, 20);
+        // Serialized outside the transaction, so any association left unfetched would fail here
+        objectMapper.writeValueAsString(page);
+        assertEquals(expectedOrders, page.getContent().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<Long> placeOrders(User user, List<Product> products, int orders, int lines) {
+        List<Long> ids = new ArrayList<>();
+        for (int o = 0; o < orders; o++) {
+            for (int i = 0; i < lines; i++) {
+                cartService.addItemToCart(user.getId(), products.get(20 + i).getId(), 1);
+            }
+            ids.add(orderService.createOrderFromCart(user, "Plot 7, Village Road").getId());
+        }
+        return ids;
+    }
+
+    private long checkout(Statistics statistics, User user, List<Product> products, int lines) {
+        for (int i = 0; i < lines; i++) {
+            cartService.addItemToCart(user.getId(), products.get(i).getId(), 1);
+        }
+        statistics.clear();
+        Order order = orderService.createOrderFromCart(user, "Plot 7, Village Road");
+        assertEquals(lines, order.getOrderItems().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User newUser(String username) {
+        return userRepository.save(new User(null, username, username + "@example.com", "x", User.Role.USER));
+    }
+
+    private long sequenceValue(String name) {
+        return jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, name);
+    }
+}
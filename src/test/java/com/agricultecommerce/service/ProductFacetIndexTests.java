@@ -0,0 +1,106 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.FacetCount;
+import com.agricultecommerce.entity.Category;
+import com.agricultecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProductFacetIndexTests {
+
+    private static final ProductFacetIndex.Filter NO_FILTER = new ProductFacetIndex.Filter(null, null, null, null, null);
+
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductFacetIndex();
+        index.rebuild(List.of(
+                product(1L, 10L, "Diesel Water Pump", "Kirloskar", "India", 2490, 40),
+                product(2L, 10L, "Submersible Pump", "Crompton", "India", 3190, 0),
+                product(3L, 10L, "Sprinkler Kit", "Hunter", "USA", 1290, 50),
+                product(4L, 20L, "Compact Tractor", "Kubota", "Japan", 124990, 5),
+                product(5L, 20L, "Tractor 575 DI", "Mahindra", "India", 82990, 12),
+                product(6L, 30L, "Oil Filter", "BOSCH", "Germany", 99.9, 300)));
+    }
+
+    @Test
+    void countsEveryFacetWithoutAFilter() {
+        ProductFacetIndex.Result result = index.query(NO_FILTER, null, Sort.unsorted(), 0, 10);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), result.ids());
+        assertEquals(6, result.total());
+        assertEquals(Map.of("10", 3, "20", 2, "30", 1), counts(result, ProductFacetIndex.CATEGORY));
+        assertEquals(Map.of("India", 3, "USA", 1, "Japan", 1, "Germany", 1), counts(result, ProductFacetIndex.ORIGIN));
+        assertEquals(Map.of("-1000", 1, "1000-10000", 3, "10000-50000", 0, "50000-100000", 1, "100000-", 1),
+                counts(result, ProductFacetIndex.PRICE));
+        assertEquals(Map.of("true", 5, "false", 1), counts(result, ProductFacetIndex.IN_STOCK));
+    }
+
+    @Test
+    void countsEachFacetWithTheOtherFiltersOnly() {
+        ProductFacetIndex.Filter filter = new ProductFacetIndex.Filter(Set.of(10L), null, Set.of("India"), null, true);
+        ProductFacetIndex.Result result = index.query(filter, null, Sort.unsorted(), 0, 10);
+
+        assertEquals(List.of(1L), result.ids());
+        // Categories are counted over Indian in-stock products, whatever their category
+        assertEquals(Map.of("10", 1, "20", 1), counts(result, ProductFacetIndex.CATEGORY));
+        // Origins over in-stock products of category 10
+        assertEquals(Map.of("India", 1, "USA", 1), counts(result, ProductFacetIndex.ORIGIN));
+        // Stock over Indian products of category 10
+        assertEquals(Map.of("true", 1, "false", 1), counts(result, ProductFacetIndex.IN_STOCK));
+    }
+
+    @Test
+    void ordersAndPagesMatchesAndRestrictsToCandidates() {
+        ProductFacetIndex.Filter bands = new ProductFacetIndex.Filter(null, null, null, Set.of("1000-10000", "100000-"), null);
+        ProductFacetIndex.Result byPrice = index.query(bands, null, Sort.by(Sort.Direction.DESC, "price"), 1, 2);
+        assertEquals(List.of(1L, 3L), byPrice.ids());
+        assertEquals(4, byPrice.total());
+
+        ProductFacetIndex.Result candidates = index.query(NO_FILTER, List.of(5L, 4L, 99L), Sort.unsorted(), 0, 10);
+        assertEquals(List.of(5L, 4L), candidates.ids());
+        assertEquals(Map.of("Kubota", 1, "Mahindra", 1), counts(candidates, ProductFacetIndex.BRAND));
+    }
+
+    @Test
+    void updatesIncrementally() {
+        index.index(product(3L, 10L, "Sprinkler Kit", "Hunter", "India", 1290, 50));
+        index.remove(6L);
+        index.updateStock(2L, 8);
+        index.index(product(7L, 30L, "Air Filter", "MANN", "Germany", 149.9, 0));
+        index.renameCategory(30L, "Spare Parts");
+
+        ProductFacetIndex.Result result = index.query(NO_FILTER, null, Sort.unsorted(), 0, 10);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 7L), result.ids());
+        assertEquals(Map.of("India", 4, "Japan", 1, "Germany", 1), counts(result, ProductFacetIndex.ORIGIN));
+        assertEquals(Map.of("true", 5, "false", 1), counts(result, ProductFacetIndex.IN_STOCK));
+        FacetCount parts = result.facets().get(ProductFacetIndex.CATEGORY).stream()
+                .filter(count -> count.getValue().equals("30")).findFirst().orElseThrow();
+        assertEquals("Spare Parts", parts.getLabel());
+        assertEquals(6, index.size());
+    }
+
+    private static Map<String, Integer> counts(ProductFacetIndex.Result result, String facet) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        result.facets().get(facet).forEach(count -> counts.put(count.getValue(), count.getCount()));
+        return counts;
+    }
+
+    private static Product product(Long id, Long categoryId, String name, String brand, String origin, double price, int stock) {
+        Product product = new Product(id, name, null, BigDecimal.valueOf(price), stock);
+        product.setBrand(brand);
+        product.setOrigin(origin);
+        product.setCategory(new Category(categoryId, "Category " + categoryId, null));
+        return product;
+    }
+}
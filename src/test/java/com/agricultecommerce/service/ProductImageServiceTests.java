@@ -0,0 +1,124 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.ImageUploadResult;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.exception.BadRequestException;
+import com.agricultecommerce.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "images.storage-dir=target/test-images")
+class ProductImageServiceTests {
+
+    @Autowired
+    private ProductImageService productImageService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void identicalUploadsAreStoredOnceAndGetResizedVariants() throws Exception {
+        byte[] png = png(1200, 800);
+        ImageUploadResult first = productImageService.store(new ByteArrayInputStream(png), "harrow.png", "image/png");
+        ImageUploadResult second = productImageService.store(new ByteArrayInputStream(png), "copy-of-harrow.PNG", null);
+
+        assertEquals(first.getUrl(), second.getUrl());
+        assertTrue(second.isDuplicate());
+        try (Stream<Path> files = Files.list(productImageService.getDirectory())) {
+            assertEquals(1, files.filter(f -> f.getFileName().toString().equals(first.getHash() + ".png")).count());
+        }
+
+        String thumbnailUrl = awaitVariant(first.getUrl(), ProductImageService.Variant.THUMBNAIL);
+        BufferedImage thumbnail = ImageIO.read(productImageService.getDirectory()
+                .resolve(thumbnailUrl.substring(ProductImageService.URL_PREFIX.length())).toFile());
+        assertEquals(160, thumbnail.getWidth());
+        assertEquals(107, thumbnail.getHeight());
+
+        Product product = new Product();
+        product.setName("Image Pipeline Harrow");
+        product.setPrice(BigDecimal.TEN);
+        product.setStock(1);
+        product.setImageUrl(first.getUrl());
+        product.setCategory(categoryRepository.findAll().get(0));
+        Product saved = productService.saveProduct(product);
+        assertEquals(thumbnailUrl, productService.getProductById(saved.getId()).orElseThrow().getThumbnailUrl());
+        assertTrue(productService.getProductById(saved.getId()).orElseThrow().getCardImageUrl().endsWith("-card.jpg"));
+    }
+
+    @Test
+    void webpUploadsAreResizedAndOtherFilesRefused() throws Exception {
+        try (InputStream webp = getClass().getResourceAsStream("/static/images/blog-11-detail-page-blog-thumbnails.webp")) {
+            ImageUploadResult result = productImageService.store(webp, "blog.webp", "image/webp");
+            assertTrue(result.getUrl().endsWith(".webp"));
+            assertTrue(awaitVariant(result.getUrl(), ProductImageService.Variant.CARD).endsWith("-card.jpg"));
+        }
+
+        assertThrows(BadRequestException.class, () -> productImageService.store(
+                new ByteArrayInputStream(new byte[] {1, 2, 3}), "notes.txt", "text/plain"));
+        assertFalse(productImageService.variantUrl("/images/logo512.png", ProductImageService.Variant.CARD).contains("-card"));
+    }
+
+    @Test
+    void variantsMissingFromDiskAreQueuedWhenRequested() throws Exception {
+        // An original whose variants were never rendered, e.g. because the queue was full
+        String fileName = "ab".repeat(32) + ".png";
+        Files.write(productImageService.getDirectory().resolve(fileName), png(600, 300));
+
+        String cardUrl = awaitVariant(ProductImageService.URL_PREFIX + fileName, ProductImageService.Variant.CARD);
+        assertEquals(ProductImageService.URL_PREFIX + "ab".repeat(32) + "-card.jpg", cardUrl);
+    }
+
+    @Test
+    void contentThatIsNotAnImageIsRefusedWhateverItsName() {
+        byte[] text = "not really a picture".getBytes(StandardCharsets.UTF_8);
+        assertThrows(BadRequestException.class, () -> productImageService.store(
+                new ByteArrayInputStream(text), "field.jpg", "image/jpeg"));
+    }
+
+    private String awaitVariant(String url, ProductImageService.Variant variant) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            String variantUrl = productImageService.variantUrl(url, variant);
+            if (!variantUrl.equals(url)) {
+                return variantUrl;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Variants of " + url + " were not rendered");
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(40, 120, 60));
+        g.fillRect(0, 0, width, height / 2);
+        g.setColor(new Color(200, 180, 40, 128));
+        g.fillOval(width / 4, height / 4, width / 2, height / 2);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,140 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.entity.Category;
+import com.agricultecommerce.entity.Product;
+import com.agricultecommerce.exception.BadRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTests {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+                product(1L, 10L, "Diesel Water Pump 5 HP", "Kirloskar", "Reliable pump for irrigation supply.", 2490),
+                product(2L, 10L, "Submersible Pump 2 HP", "Crompton", "Borewell submersible pump set.", 3190),
+                product(3L, 20L, "Mahindra 575 DI Tractor (45 HP)", "Mahindra", "Popular 2WD tractor.", 82990),
+                product(4L, 20L, "Tractor Trailer 2 Ton", "Balwan", "Heavy-duty trailer for a pump truck.", 8990)));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 2L, 4L), index.search("pump", null, Sort.unsorted()));
+    }
+
+    @Test
+    void requiresEveryTermAndMatchesPrefixes() {
+        assertEquals(List.of(3L), index.search("mahin tract", null, Sort.unsorted()));
+        assertTrue(index.search("mahindra pump", null, Sort.unsorted()).isEmpty());
+    }
+
+    @Test
+    void filtersByCategoryPostings() {
+        assertEquals(List.of(4L), index.search("pump", 20L, Sort.unsorted()));
+        assertTrue(index.search("pump", 99L, Sort.unsorted()).isEmpty());
+    }
+
+    @Test
+    void appliesExplicitSort() {
+        assertEquals(List.of(2L, 1L), index.search("hp pump", null, Sort.by(Sort.Direction.DESC, "price")));
+        assertThrows(BadRequestException.class, () -> index.search("pump", null, Sort.by("description")));
+    }
+
+    @Test
+    void updatesIncrementally() {
+        index.index(product(2L, 10L, "Borewell Motor 2 HP", "Crompton", "Submersible motor.", 3190));
+        assertEquals(List.of(1L, 4L), index.search("pump", null, Sort.unsorted()));
+
+        index.remove(1L);
+        assertEquals(List.of(4L), index.search("pump", null, Sort.unsorted()));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void sortsByUpdatedStock() {
+        index.updateStock(3L, 2);
+        assertEquals(List.of(3L, 4L), index.search("tractor", null, Sort.by("stock")));
+        index.updateStock(3L, 50);
+        assertEquals(List.of(4L, 3L), index.search("tractor", null, Sort.by("stock")));
+    }
+
+    @Test
+    void fuzzySearchCorrectsTyposInNamesAndBrands() {
+        assertTrue(index.search("submersable", null, Sort.unsorted()).isEmpty());
+        assertEquals(List.of(2L), index.search("submersable", null, Sort.unsorted(), true));
+        assertEquals(List.of(1L), index.search("kirloskr pump", null, Sort.unsorted(), true));
+        assertEquals(List.of(3L), index.search("mahindar", null, Sort.unsorted(), true));
+        // Too short to correct
+        assertTrue(index.search("pmup", null, Sort.unsorted(), true).isEmpty());
+    }
+
+    @Test
+    void fuzzySearchCorrectsTransposedLetters() {
+        index.index(product(5L, 30L, "Rotavator 7 Feet", "Sonalika", "Tiller for seedbed preparation.", 98000));
+        assertEquals(Set.of(3L, 4L), Set.copyOf(index.search("tarctor", null, Sort.unsorted(), true)));
+        assertEquals(List.of(5L), index.search("sonailka", null, Sort.unsorted(), true));
+        assertEquals(List.of(5L), index.search("sonailka roatvator", null, Sort.unsorted(), true));
+    }
+
+    @Test
+    void fuzzySearchRanksExactMatchesFirstAndFollowsUpdates() {
+        index.index(product(5L, 30L, "Rotavator 7 Feet", "Sonalika", "Tiller for seedbed preparation.", 98000));
+        index.index(product(6L, 30L, "Rotavater Blade Set", "Balwan", "Replacement blades.", 4200));
+        assertEquals(List.of(6L, 5L), index.search("rotavater", null, Sort.unsorted(), true));
+        assertEquals(List.of(5L), index.search("sonalka", null, Sort.unsorted(), true));
+
+        index.remove(5L);
+        assertEquals(List.of(6L), index.search("rotavator", null, Sort.unsorted(), true));
+        assertTrue(index.search("sonalka", null, Sort.unsorted(), true).isEmpty());
+    }
+
+    @Test
+    void fuzzySearchCorrectsTyposAtCatalogScale() {
+        String[] words = {"heavy", "compact", "organic", "hybrid", "solar", "sprayer", "seeder", "tiller", "harrow",
+                "fertilizer", "rotavator", "cultivator", "thresher", "weeder", "mulcher", "baler"};
+        Random random = new Random(7);
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)]
+                    + " " + Long.toString(random.nextInt(1_000_000), 36);
+            catalog.add(product(id, 1L + random.nextInt(50), name, "Brand" + random.nextInt(2000), null, 1000));
+        }
+        index.rebuild(catalog);
+
+        assertEquals(List.of(), index.search("rotavater", 3L, Sort.unsorted()));
+        for (String query : new String[]{"rotavater", "cultivater 7", "fertiliser", "thresher", "brand1234", "sparyer"}) {
+            assertFalse(index.search(query, 3L, Sort.unsorted(), true).isEmpty(), query);
+        }
+    }
+
+    @Test
+    void boundsEditDistance() {
+        assertTrue(ProductSearchIndex.withinEdits("submersable", "submersible", 1));
+        assertTrue(ProductSearchIndex.withinEdits("tarctor", "tractor", 1));
+        assertTrue(ProductSearchIndex.withinEdits("sonalka", "sonalika", 1));
+        assertFalse(ProductSearchIndex.withinEdits("tractor", "trailer", 2));
+        assertFalse(ProductSearchIndex.withinEdits("pump", "pumpset", 2));
+    }
+
+    private static Product product(Long id, Long categoryId, String name, String brand, String description, double price) {
+        Product product = new Product(id, name, description, BigDecimal.valueOf(price), 10);
+        product.setBrand(brand);
+        product.setCategory(new Category(categoryId, "Category " + categoryId, null));
+        return product;
+    }
+}
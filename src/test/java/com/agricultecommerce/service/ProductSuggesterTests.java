@@ -0,0 +1,106 @@
+package com.agricultecommerce.service;
+
+import com.agricultecommerce.dto.ProductSuggestion;
+import com.agricultecommerce.entity.Category;
+import com.agricultecommerce.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSuggesterTests {
+
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ProductSuggester();
+        suggester.setUnitsSold(Map.of(2L, 30L, 5L, 4L));
+        suggester.rebuild(List.of(
+                product(1L, 10L, "Irrigation", "Diesel Water Pump", "Kirloskar"),
+                product(2L, 10L, "Irrigation", "Submersible Pump", "Crompton"),
+                product(3L, 10L, "Irrigation", "Sprinkler Kit", "Hunter"),
+                product(4L, 20L, "Tractors", "Compact Tractor", "Kubota"),
+                product(5L, 20L, "Tractors", "Tractor 575 DI", "Mahindra"),
+                product(6L, 30L, "Spare Parts", "Oil Filter", "Kirloskar")));
+    }
+
+    @Test
+    void matchesAnyWordPrefixHeaviestFirst() {
+        assertEquals(List.of("Submersible Pump", "Diesel Water Pump"), texts(suggester.suggest("pu", 10)));
+        // Category weighs the sum of its products, then the products by units sold
+        assertEquals(List.of("Tractors", "Tractor 575 DI", "Compact Tractor"), texts(suggester.suggest(" TRACT", 10)));
+        assertEquals(List.of("Kirloskar"), texts(suggester.suggest("kirl", 10)));
+        assertEquals(List.of("Diesel Water Pump"), texts(suggester.suggest("water  p", 10)));
+        assertEquals(List.of("Submersible Pump"), texts(suggester.suggest("p", 1)));
+        assertEquals(List.of(), suggester.suggest("xyz", 10));
+        assertEquals(List.of(), suggester.suggest("  ", 10));
+
+        ProductSuggestion brand = suggester.suggest("kirl", 1).get(0);
+        assertEquals("BRAND", brand.getType());
+        assertEquals(null, brand.getId());
+        ProductSuggestion category = suggester.suggest("spare", 1).get(0);
+        assertEquals("CATEGORY", category.getType());
+        assertEquals(30L, category.getId());
+    }
+
+    @Test
+    void appliesCatalogWritesOnRefresh() {
+        suggester.index(product(1L, 10L, "Irrigation", "Solar Water Pump", "Kirloskar"));
+        suggester.index(product(7L, 30L, "Spare Parts", "Air Filter", "MANN"));
+        suggester.remove(3L);
+        suggester.renameCategory(20L, "Farm Tractors");
+        suggester.setUnitsSold(Map.of(4L, 50L));
+
+        assertEquals(List.of("Diesel Water Pump"), texts(suggester.suggest("diesel", 10)));
+        suggester.refresh();
+
+        assertEquals(List.of(), suggester.suggest("diesel", 10));
+        assertEquals(List.of(), suggester.suggest("sprink", 10));
+        assertEquals(List.of("Solar Water Pump"), texts(suggester.suggest("sol", 10)));
+        assertEquals(List.of("Oil Filter", "Air Filter"), texts(suggester.suggest("filt", 10)));
+        assertEquals(List.of("Farm Tractors", "Compact Tractor", "Tractor 575 DI"), texts(suggester.suggest("tract", 10)));
+    }
+
+    @Test
+    void staysWithinTheMemoryBudgetForOneHundredThousandSkus() {
+        String[] adjectives = {"Heavy", "Compact", "Organic", "Hybrid", "Solar", "Electric", "Manual", "Premium"};
+        String[] nouns = {"Pump", "Sprayer", "Seeder", "Tiller", "Harrow", "Fertilizer", "Seeds", "Hose", "Filter", "Blade"};
+        Random random = new Random(42);
+        List<Product> catalog = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            String name = adjectives[random.nextInt(adjectives.length)] + " " + nouns[random.nextInt(nouns.length)]
+                    + " " + Long.toString(random.nextInt(1_000_000), 36).toUpperCase();
+            catalog.add(product(id, 1L + random.nextInt(50), "Category " + random.nextInt(50), name,
+                    "Brand" + random.nextInt(2000)));
+        }
+        suggester.rebuild(catalog);
+
+        // The documented budget is 20 MB per 100k SKUs; this catalog estimates about 15 MB
+        long bytes = (Long) suggester.stats().get("estimatedBytes");
+        assertTrue(bytes < 20L * 1024 * 1024, "estimated " + bytes + " bytes");
+
+        String[] prefixes = {"p", "pu", "so", "sola", "brand1", "comp", "heavy se", "fert", "1", "category 4"};
+        for (String prefix : prefixes) {
+            assertEquals(8, suggester.suggest(prefix, 8).size());
+        }
+    }
+
+    private static List<String> texts(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::getText).toList();
+    }
+
+    private static Product product(Long id, Long categoryId, String categoryName, String name, String brand) {
+        Product product = new Product(id, name, null, BigDecimal.TEN, 1);
+        product.setBrand(brand);
+        product.setCategory(new Category(categoryId, categoryName, null));
+        return product;
+    }
+}